@@ -0,0 +1,107 @@
+package lab3.task4;
+
+import java.util.*;
+
+/*
+ * Lab 3 - Task 4 (extension): Birth-year bucket index
+ * ---------------------------------------------------
+ * One bucket of registry positions per birth year, in a TreeMap ordered by year (only one boxed
+ * key per distinct year; positions are plain ints). Age conditions turn into a contiguous range
+ * of years, so findOlderThan/findYoungerThan read only the matching buckets, and walking the
+ * buckets in year order yields students by age without comparing ages.
+ */
+class BirthYearIndex {
+    // Positions of one birth year, ascending (= insertion order)
+    static final class Bucket {
+        private int[] positions = new int[4];
+        private int size;
+
+        public int size() { return size; }
+        public int positionAt(int i) { return positions[i]; }
+
+        void append(int position) {
+            if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+            positions[size++] = position;
+        }
+
+        void insert(int position) {
+            int idx = Arrays.binarySearch(positions, 0, size, position);
+            if (idx >= 0) return;
+            idx = -idx - 1;
+            if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+            System.arraycopy(positions, idx, positions, idx + 1, size - idx);
+            positions[idx] = position;
+            size++;
+        }
+
+        void remove(int position) {
+            int idx = Arrays.binarySearch(positions, 0, size, position);
+            if (idx < 0) return;
+            System.arraycopy(positions, idx + 1, positions, idx, size - idx - 1);
+            size--;
+        }
+    }
+
+    private final TreeMap<Integer, Bucket> buckets = new TreeMap<>();
+    private int[] years = new int[16]; // indexed birth year per position, to find the old bucket on update
+    private int count;
+
+    // Positions must be added as 0, 1, 2, ...
+    public void add(int position, int birthYear) {
+        if (position != count) throw new IllegalArgumentException("Expected position " + count + ", got " + position);
+        if (count == years.length) years = Arrays.copyOf(years, count * 2);
+        years[count++] = birthYear;
+        bucket(birthYear).append(position);
+    }
+
+    // Moves 'position' after its birth year changed (Student.setBirthYear)
+    public void update(int position, int birthYear) {
+        if (position < 0 || position >= count) throw new IndexOutOfBoundsException("position " + position);
+        int old = years[position];
+        if (old == birthYear) return;
+        Bucket from = buckets.get(old);
+        from.remove(position);
+        if (from.size() == 0) buckets.remove(old);
+        bucket(birthYear).insert(position);
+        years[position] = birthYear;
+    }
+
+    // Buckets with from <= year <= to, in ascending year order
+    public Collection<Bucket> range(long from, long to) {
+        if (from > to || to < Integer.MIN_VALUE || from > Integer.MAX_VALUE) return Collections.emptyList();
+        int lo = (int) Math.max(from, Integer.MIN_VALUE);
+        int hi = (int) Math.min(to, Integer.MAX_VALUE);
+        return buckets.subMap(lo, true, hi, true).values();
+    }
+
+    // Number of students born in [from, to]; sums bucket sizes only
+    public int count(long from, long to) {
+        int n = 0;
+        for (Bucket b : range(from, to)) n += b.size;
+        return n;
+    }
+
+    // Positions of all students born in [from, to], ascending (= insertion order)
+    public int[] positions(long from, long to) {
+        Collection<Bucket> hit = range(from, to);
+        int n = 0;
+        for (Bucket b : hit) n += b.size;
+        int[] res = new int[n];
+        int k = 0;
+        for (Bucket b : hit) {
+            System.arraycopy(b.positions, 0, res, k, b.size);
+            k += b.size;
+        }
+        if (hit.size() > 1) Arrays.sort(res);
+        return res;
+    }
+
+    private Bucket bucket(int year) {
+        Bucket b = buckets.get(year);
+        if (b == null) {
+            b = new Bucket();
+            buckets.put(year, b);
+        }
+        return b;
+    }
+}
@@ -0,0 +1,89 @@
+package lab3.task4;
+
+/*
+ * Lab 3 - Task 4 (extension): Primitive matNo -> position index
+ * -------------------------------------------------------------
+ * Open-addressing hash table from int matriculation numbers to the student's position in the
+ * registry list. It replaces the HashSet<Integer> + HashMap<Integer, Student> pair of
+ * StudentRegistry: keys stay in an int[], positions (+1, so 0 marks a free cell and every int is
+ * a valid key) in a parallel int[], and collisions are resolved by linear probing. There are no
+ * Integer boxes and no entry objects, so a student costs about 11-21 bytes of table instead of
+ * roughly 100 bytes in the two maps, and putIfAbsent answers "duplicate?" and inserts with a
+ * single probe sequence. Positions are what the other indexes (e.g. TrigramIndex) store too.
+ */
+class MatricIndex {
+    static final int MISSING = -1;
+
+    private int[] keys;
+    private int[] values; // position + 1; 0 = free
+    private int mask;
+    private int size;
+
+    MatricIndex() {
+        this(16);
+    }
+
+    MatricIndex(int expected) {
+        int capacity = tableSize(expected);
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() { return size; }
+
+    // Position stored for 'matNo', or MISSING
+    public int get(int matNo) {
+        for (int i = hash(matNo) & mask; ; i = (i + 1) & mask) {
+            int v = values[i];
+            if (v == 0) return MISSING;
+            if (keys[i] == matNo) return v - 1;
+        }
+    }
+
+    // Stores 'position' under 'matNo' unless the number is taken; returns the position already stored, or MISSING
+    public int putIfAbsent(int matNo, int position) {
+        int i = hash(matNo) & mask;
+        for (int cur; (cur = values[i]) != 0; i = (i + 1) & mask) {
+            if (keys[i] == matNo) return cur - 1;
+        }
+        keys[i] = matNo;
+        values[i] = position + 1;
+        if (++size * 4 > keys.length * 3) resize(keys.length * 2);
+        return MISSING;
+    }
+
+    // Grows the table once so that 'expected' keys fit without further resizes
+    public void ensureCapacity(int expected) {
+        int needed = tableSize(expected);
+        if (needed > keys.length) resize(needed);
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == 0) continue;
+            int j = hash(oldKeys[i]) & mask;
+            while (values[j] != 0) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+
+    // Smallest power of two that holds 'expected' keys at load factor 0.75
+    private static int tableSize(int expected) {
+        long needed = Math.max(4L, (long) expected * 4 / 3 + 1);
+        if (needed > 1 << 30) return 1 << 30;
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    // Matriculation numbers are often sequential; mixing spreads them over the table
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
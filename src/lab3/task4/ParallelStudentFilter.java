@@ -0,0 +1,164 @@
+package lab3.task4;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/*
+ * Lab 3 - Task 4 (extension): Parallel full-scan filter
+ * -----------------------------------------------------
+ * Splits the registry's backing list with a position-range Spliterator and filters the pieces on
+ * a ForkJoinPool. Each leaf task fills its own Student[] buffer (no shared list, no locking); the
+ * buffers form a tree in position order and are copied into the result exactly once, so the
+ * output is identical to the sequential filter whatever the thread count or scheduling.
+ *
+ * Below SEQUENTIAL_THRESHOLD students the fork/join overhead is not worth it and the scan runs
+ * on the calling thread. Leaves are sized so that every worker gets a few of them (for load
+ * balancing when the predicate is uneven) but never fewer than MIN_LEAF students.
+ *
+ * The predicate must be safe to call from several threads, and the registry must not be
+ * modified while the filter runs (StudentRegistry is not thread-safe anyway).
+ */
+final class ParallelStudentFilter {
+    static final int SEQUENTIAL_THRESHOLD = 1 << 15;
+    static final int MIN_LEAF = 1 << 12;
+    private static final int LEAVES_PER_WORKER = 4;
+
+    private ParallelStudentFilter() {}
+
+    static List<Student> filter(List<Student> students, Predicate<Student> predicate, ForkJoinPool pool) {
+        int n = students.size();
+        if (n < SEQUENTIAL_THRESHOLD || pool.getParallelism() < 2) {
+            List<Student> result = new ArrayList<>();
+            for (Student s : students) if (predicate.test(s)) result.add(s);
+            return result;
+        }
+        int leaf = Math.max(MIN_LEAF, n / (pool.getParallelism() * LEAVES_PER_WORKER));
+        Partial tree = pool.invoke(new FilterTask(new PositionSpliterator(students, 0, n), predicate, leaf));
+        Student[] out = new Student[tree.total];
+        tree.copyTo(out, 0);
+        return new ArrayList<>(Arrays.asList(out));
+    }
+
+    // ------------------------- Spliterator -------------------------
+    // Positions [from, to) of a RandomAccess list; splits in halves, prefix first (ORDERED)
+    static final class PositionSpliterator implements Spliterator<Student> {
+        private final List<Student> students;
+        private int from;
+        private final int to;
+
+        PositionSpliterator(List<Student> students, int from, int to) {
+            this.students = students;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Student> action) {
+            if (from >= to) return false;
+            action.accept(students.get(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Student> action) {
+            for (int i = from; i < to; i++) action.accept(students.get(i));
+            from = to;
+        }
+
+        @Override
+        public Spliterator<Student> trySplit() {
+            int mid = (from + to) >>> 1;
+            if (mid <= from) return null;
+            PositionSpliterator prefix = new PositionSpliterator(students, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override public long estimateSize() { return to - from; }
+
+        @Override public int characteristics() { return ORDERED | SIZED | SUBSIZED | NONNULL; }
+    }
+
+    // ------------------------- Fork/join -------------------------
+    // Matches of one range: a leaf buffer, or the in-order pair of its halves
+    private static final class Partial {
+        final Student[] items;
+        final Partial left;
+        final Partial right;
+        final int total;
+
+        Partial(Student[] items, int count) {
+            this.items = items;
+            this.left = null;
+            this.right = null;
+            this.total = count;
+        }
+
+        Partial(Partial left, Partial right) {
+            this.items = null;
+            this.left = left;
+            this.right = right;
+            this.total = left.total + right.total;
+        }
+
+        int copyTo(Student[] out, int offset) {
+            if (items != null) {
+                System.arraycopy(items, 0, out, offset, total);
+                return offset + total;
+            }
+            return right.copyTo(out, left.copyTo(out, offset));
+        }
+    }
+
+    // Per-leaf result buffer; grows by doubling
+    private static final class Buffer implements Consumer<Student> {
+        private final Predicate<Student> predicate;
+        Student[] items;
+        int count;
+
+        Buffer(Predicate<Student> predicate) {
+            this.predicate = predicate;
+            this.items = new Student[64];
+        }
+
+        @Override
+        public void accept(Student s) {
+            if (!predicate.test(s)) return;
+            if (count == items.length) items = Arrays.copyOf(items, count * 2);
+            items[count++] = s;
+        }
+    }
+
+    private static final class FilterTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<Student> range;
+        private final Predicate<Student> predicate;
+        private final int leaf;
+
+        FilterTask(Spliterator<Student> range, Predicate<Student> predicate, int leaf) {
+            this.range = range;
+            this.predicate = predicate;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected Partial compute() {
+            Spliterator<Student> prefix = range.estimateSize() > leaf ? range.trySplit() : null;
+            if (prefix == null) return scan();
+            FilterTask left = new FilterTask(prefix, predicate, leaf);
+            left.fork();
+            Partial right = new FilterTask(range, predicate, leaf).compute();
+            return new Partial(left.join(), right);
+        }
+
+        private Partial scan() {
+            Buffer buf = new Buffer(predicate);
+            range.forEachRemaining(buf);
+            return new Partial(buf.items, buf.count);
+        }
+    }
+}
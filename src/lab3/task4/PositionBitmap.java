@@ -0,0 +1,368 @@
+package lab3.task4;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/*
+ * Lab 3 - Task 4 (extension): Compressed bitmap of registry positions
+ * -------------------------------------------------------------------
+ * Roaring-style set of non-negative ints (registry positions, which are dense because task 4
+ * never removes students). The value space is split into chunks of 65536 by the high 16 bits;
+ * each non-empty chunk has one container for the low 16 bits:
+ * - array container: sorted char[] for up to 4096 values (2 bytes per value)
+ * - bitmap container: long[1024] (8 KB) for denser chunks
+ * AND / OR / AND-NOT work chunk by chunk and container by container (merge of two arrays,
+ * word-wise ops on two bitmaps, membership tests for mixed pairs), so combining filters costs
+ * about the size of the smaller inputs and no Student is touched until the final result is read.
+ *
+ * Bitmaps are immutable once built; operations return new bitmaps (containers may be shared).
+ */
+final class PositionBitmap {
+    static final PositionBitmap EMPTY = new PositionBitmap(new char[0], new Container[0], 0);
+
+    private static final int ARRAY_MAX = 4096; // above this a bitmap container is smaller
+
+    private final char[] keys;             // high 16 bits, ascending
+    private final Container[] containers;  // parallel to keys, never empty
+    private final int size;                // number of chunks in use
+
+    private PositionBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    // Bitmap of the given positions, which must be ascending (duplicates are ignored)
+    static PositionBitmap ofSorted(int[] positions) {
+        Builder b = new Builder();
+        for (int p : positions) b.add(p);
+        return b.build();
+    }
+
+    // Bitmap of the given positions in any order; sorts a copy first
+    static PositionBitmap of(int[] positions) {
+        int[] sorted = positions.clone();
+        Arrays.sort(sorted);
+        return ofSorted(sorted);
+    }
+
+    public int cardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++) n += containers[i].cardinality();
+        return n;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int position) {
+        if (position < 0) return false;
+        int i = indexOfKey((char) (position >>> 16));
+        return i >= 0 && containers[i].contains((char) position);
+    }
+
+    public PositionBitmap and(PositionBitmap other) {
+        Builder b = new Builder();
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (keys[i] > other.keys[j]) j++;
+            else {
+                b.append(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return b.build();
+    }
+
+    public PositionBitmap or(PositionBitmap other) {
+        Builder b = new Builder();
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                b.append(keys[i], containers[i]);
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                b.append(other.keys[j], other.containers[j]);
+                j++;
+            } else {
+                b.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return b.build();
+    }
+
+    // Positions in this bitmap but not in 'other'
+    public PositionBitmap andNot(PositionBitmap other) {
+        Builder b = new Builder();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) j++;
+            if (j < other.size && other.keys[j] == keys[i]) b.append(keys[i], containers[i].andNot(other.containers[j]));
+            else b.append(keys[i], containers[i]);
+        }
+        return b.build();
+    }
+
+    // Visits positions in ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) containers[i].forEach(keys[i] << 16, action);
+    }
+
+    public int[] toArray() {
+        int[] res = new int[cardinality()];
+        int k = 0;
+        for (int i = 0; i < size; i++) k = containers[i].copyTo(keys[i] << 16, res, k);
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        int arrays = 0;
+        for (int i = 0; i < size; i++) if (containers[i] instanceof ArrayContainer) arrays++;
+        return "PositionBitmap{cardinality=" + cardinality() + ", arrayContainers=" + arrays
+                + ", bitmapContainers=" + (size - arrays) + "}";
+    }
+
+    private int indexOfKey(char key) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else if (keys[mid] > key) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // ------------------------- Building -------------------------
+    // Collects chunks in ascending key order; positions must be added in ascending order
+    private static final class Builder {
+        private char[] keys = new char[4];
+        private Container[] containers = new Container[4];
+        private int size;
+        private char[] run = new char[16]; // low bits of the chunk being filled
+        private int runCount;
+        private int runKey = -1;
+
+        void add(int position) {
+            if (position < 0) throw new IllegalArgumentException("Negative position " + position);
+            int key = position >>> 16;
+            if (key != runKey) {
+                flushRun();
+                runKey = key;
+            }
+            char low = (char) position;
+            if (runCount > 0 && run[runCount - 1] >= low) {
+                if (run[runCount - 1] == low) return;
+                throw new IllegalArgumentException("Positions must be ascending: " + position);
+            }
+            if (runCount == run.length) run = Arrays.copyOf(run, runCount * 2);
+            run[runCount++] = low;
+        }
+
+        // Appends a finished container; empty results (null or cardinality 0) are skipped
+        void append(char key, Container c) {
+            if (c == null || c.cardinality() == 0) return;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = key;
+            containers[size++] = c;
+        }
+
+        PositionBitmap build() {
+            flushRun();
+            return size == 0 ? EMPTY : new PositionBitmap(keys, containers, size);
+        }
+
+        private void flushRun() {
+            if (runCount == 0) return;
+            append((char) runKey, Container.fromSorted(run, runCount));
+            runCount = 0;
+        }
+    }
+
+    // ------------------------- Containers -------------------------
+    private abstract static class Container {
+        abstract int cardinality();
+        abstract boolean contains(char low);
+        abstract Container and(Container other);
+        abstract Container or(Container other);
+        abstract Container andNot(Container other);
+        abstract void forEach(int high, IntConsumer action);
+        abstract int copyTo(int high, int[] out, int offset);
+
+        // Smallest representation of values[0, n) (ascending, distinct)
+        static Container fromSorted(char[] values, int n) {
+            if (n <= ARRAY_MAX) return new ArrayContainer(Arrays.copyOf(values, n), n);
+            BitmapContainer b = new BitmapContainer(new long[1024], 0);
+            for (int i = 0; i < n; i++) b.set(values[i]);
+            return b;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+        private final int n;
+
+        ArrayContainer(char[] values, int n) {
+            this.values = values;
+            this.n = n;
+        }
+
+        @Override int cardinality() { return n; }
+
+        @Override boolean contains(char low) { return Arrays.binarySearch(values, 0, n, low) >= 0; }
+
+        @Override Container and(Container other) {
+            char[] out = new char[n];
+            int k = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                int i = 0, j = 0;
+                while (i < n && j < o.n) {
+                    if (values[i] < o.values[j]) i++;
+                    else if (values[i] > o.values[j]) j++;
+                    else {
+                        out[k++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < n; i++) if (other.contains(values[i])) out[k++] = values[i];
+            }
+            return new ArrayContainer(out, k);
+        }
+
+        @Override Container or(Container other) {
+            if (other instanceof BitmapContainer) return other.or(this);
+            ArrayContainer o = (ArrayContainer) other;
+            char[] out = new char[n + o.n];
+            int i = 0, j = 0, k = 0;
+            while (i < n && j < o.n) {
+                if (values[i] < o.values[j]) out[k++] = values[i++];
+                else if (values[i] > o.values[j]) out[k++] = o.values[j++];
+                else {
+                    out[k++] = values[i++];
+                    j++;
+                }
+            }
+            while (i < n) out[k++] = values[i++];
+            while (j < o.n) out[k++] = o.values[j++];
+            return fromSorted(out, k);
+        }
+
+        @Override Container andNot(Container other) {
+            char[] out = new char[n];
+            int k = 0;
+            for (int i = 0; i < n; i++) if (!other.contains(values[i])) out[k++] = values[i];
+            return new ArrayContainer(out, k);
+        }
+
+        @Override void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < n; i++) action.accept(high | values[i]);
+        }
+
+        @Override int copyTo(int high, int[] out, int offset) {
+            for (int i = 0; i < n; i++) out[offset++] = high | values[i];
+            return offset;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        // Only used while the container is being built
+        void set(char low) {
+            long bit = 1L << low;
+            int w = low >>> 6;
+            if ((words[w] & bit) == 0) {
+                words[w] |= bit;
+                cardinality++;
+            }
+        }
+
+        @Override int cardinality() { return cardinality; }
+
+        @Override boolean contains(char low) { return (words[low >>> 6] & (1L << low)) != 0; }
+
+        @Override Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            long[] o = ((BitmapContainer) other).words;
+            long[] out = new long[1024];
+            int card = 0;
+            for (int w = 0; w < 1024; w++) card += Long.bitCount(out[w] = words[w] & o[w]);
+            return shrink(out, card);
+        }
+
+        @Override Container or(Container other) {
+            BitmapContainer res = new BitmapContainer(words.clone(), cardinality);
+            if (other instanceof ArrayContainer) {
+                ArrayContainer a = (ArrayContainer) other;
+                for (int i = 0; i < a.n; i++) res.set(a.values[i]);
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                int card = 0;
+                for (int w = 0; w < 1024; w++) card += Long.bitCount(res.words[w] |= o[w]);
+                res.cardinality = card;
+            }
+            return res;
+        }
+
+        @Override Container andNot(Container other) {
+            long[] out = words.clone();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer a = (ArrayContainer) other;
+                for (int i = 0; i < a.n; i++) out[a.values[i] >>> 6] &= ~(1L << a.values[i]);
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                for (int w = 0; w < 1024; w++) out[w] &= ~o[w];
+            }
+            int card = 0;
+            for (long word : out) card += Long.bitCount(word);
+            return shrink(out, card);
+        }
+
+        @Override void forEach(int high, IntConsumer action) {
+            for (int w = 0; w < 1024; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        @Override int copyTo(int high, int[] out, int offset) {
+            for (int w = 0; w < 1024; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    out[offset++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                }
+            }
+            return offset;
+        }
+
+        // Back to an array container once the result is sparse enough
+        private static Container shrink(long[] words, int card) {
+            if (card > ARRAY_MAX) return new BitmapContainer(words, card);
+            char[] values = new char[card];
+            int k = 0;
+            for (int w = 0; w < 1024; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, k);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package lab3.task4;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/*
+ * Lab 3 - Task 4 (extension): Query execution plan
+ * ------------------------------------------------
+ * Built by StudentRegistry.plan(StudentQuery): the indexed conditions that are intersected as
+ * PositionBitmaps (most selective first) and the conditions that are checked per candidate.
+ */
+final class QueryPlan {
+    // An indexed condition: estimated rows, how to materialize them, and how to check one student
+    static final class IndexStep {
+        final String condition;
+        final String index;
+        final int estimate;
+        final Supplier<PositionBitmap> rows;
+        final Predicate<Student> check;
+
+        IndexStep(String condition, String index, int estimate, Supplier<PositionBitmap> rows, Predicate<Student> check) {
+            this.condition = condition;
+            this.index = index;
+            this.estimate = estimate;
+            this.rows = rows;
+            this.check = check;
+        }
+    }
+
+    // A step whose bitmap would be this many times larger than the candidates is checked per row instead
+    static final int INTERSECT_FACTOR = 4;
+
+    private final String query;
+    private final int total;
+    private final List<IndexStep> intersected = new ArrayList<>(); // [0] drives
+    private final List<String> residualLabels = new ArrayList<>();
+    private final List<Predicate<Student>> residuals = new ArrayList<>();
+
+    // Picks the most selective index, intersects the cheap ones, leaves the rest as residual checks
+    QueryPlan(StudentQuery q, int total, List<IndexStep> steps) {
+        this.query = q.toString();
+        this.total = total;
+        List<IndexStep> ordered = new ArrayList<>(steps);
+        ordered.sort(Comparator.comparingInt(s -> s.estimate));
+        long candidates = total;
+        for (IndexStep step : ordered) {
+            // A step that cannot exclude anything (e.g. a name part shorter than a trigram) is never materialized
+            if (step.estimate < total && step.estimate <= candidates * INTERSECT_FACTOR) {
+                intersected.add(step);
+                candidates = Math.min(candidates, step.estimate);
+            } else {
+                residualLabels.add(step.condition);
+                residuals.add(step.check);
+            }
+        }
+        residualLabels.addAll(q.getOtherLabels());
+        residuals.addAll(q.getOthers());
+    }
+
+    // Matching students in registry (insertion) order
+    List<Student> execute(List<Student> students) {
+        PositionBitmap rows = null;
+        for (IndexStep step : intersected) {
+            rows = rows == null ? step.rows.get() : rows.and(step.rows.get());
+            if (rows.isEmpty()) return new ArrayList<>();
+        }
+        List<Student> result = new ArrayList<>();
+        if (rows == null) {
+            for (Student s : students) if (matches(s)) result.add(s);
+        } else {
+            rows.forEach(p -> {
+                Student s = students.get(p);
+                if (matches(s)) result.add(s);
+            });
+        }
+        return result;
+    }
+
+    public String explain() {
+        StringBuilder sb = new StringBuilder("Plan for: ").append(query).append('\n');
+        if (intersected.isEmpty()) {
+            sb.append("  full scan of ").append(total).append(" students\n");
+        } else {
+            for (int i = 0; i < intersected.size(); i++) {
+                IndexStep step = intersected.get(i);
+                sb.append(i == 0 ? "  drive:     " : "  intersect: ").append(step.condition)
+                  .append(" via ").append(step.index).append(" (~").append(step.estimate).append(" rows)\n");
+            }
+        }
+        for (String label : residualLabels) sb.append("  check:     ").append(label).append('\n');
+        return sb.toString();
+    }
+
+    private boolean matches(Student s) {
+        for (Predicate<Student> p : residuals) if (!p.test(s)) return false;
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package lab3.task4;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/*
+ * Lab 3 - Task 4 (extension): Cached reference year for age calculations
+ * -----------------------------------------------------------------------
+ * Student.getAge() used to build a full Calendar per call. The year only changes at midnight,
+ * so this clock computes it once and then only compares the current time with the start of the
+ * next day: the common path is one volatile read and one currentTimeMillis() call, no allocation.
+ */
+final class ReferenceYearClock {
+    static final ReferenceYearClock SYSTEM = new ReferenceYearClock(Clock.systemDefaultZone());
+
+    // Year and the instant (epoch millis) until which it is valid; replaced as a whole
+    private static final class Cached {
+        final int year;
+        final long validUntil;
+
+        Cached(int year, long validUntil) {
+            this.year = year;
+            this.validUntil = validUntil;
+        }
+    }
+
+    private final Clock clock;
+    private volatile Cached cached = new Cached(0, Long.MIN_VALUE);
+
+    ReferenceYearClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public int currentYear() {
+        Cached c = cached;
+        if (clock.millis() >= c.validUntil) c = refresh();
+        return c.year;
+    }
+
+    // At most once per day; a race just computes the same value twice
+    private Cached refresh() {
+        LocalDate today = LocalDate.now(clock);
+        long nextDay = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        Cached c = new Cached(today.getYear(), nextDay);
+        cached = c;
+        return c;
+    }
+}
@@ -0,0 +1,96 @@
+package lab3.task4;
+
+import java.util.Arrays;
+
+/*
+ * Lab 3 - Task 4 (extension): Sorted matriculation-number index
+ * --------------------------------------------------------------
+ * Registry positions ordered by matriculation number, for range queries in O(log n + k).
+ * Each entry is one long: matNo in the high 32 bits, position in the low 32 bits, so a plain
+ * Arrays.sort orders by matNo and the whole index is a single primitive array.
+ *
+ * Adds only append to a small unsorted pending buffer. The next query sorts that buffer and
+ * merges it into a new sorted array in one linear pass (batched merge), so a bulk load costs
+ * one sort instead of one array shift per student. The sorted array is never modified in place;
+ * a Range obtained earlier keeps reading the array it was created from (a stable snapshot).
+ */
+class SortedMatricIndex {
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+
+    private long[] sorted = new long[0];
+    private long[] pending = new long[16];
+    private int pendingCount;
+
+    // Entries [from, to) of one sorted array; positions are read on demand
+    static final class Range {
+        private final long[] entries;
+        private final int from;
+        private final int to;
+
+        private Range(long[] entries, int from, int to) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        public int size() { return to - from; }
+        public int positionAt(int i) { return (int) (entries[from + checkIndex(i)] & POSITION_MASK); }
+        public int matricAt(int i) { return (int) (entries[from + checkIndex(i)] >> 32); }
+
+        // Positions in matNo order
+        public int[] positions() {
+            int[] res = new int[to - from];
+            for (int i = from; i < to; i++) res[i - from] = (int) (entries[i] & POSITION_MASK);
+            return res;
+        }
+
+        private int checkIndex(int i) {
+            if (i < 0 || i >= to - from) throw new IndexOutOfBoundsException("index " + i + " of " + (to - from));
+            return i;
+        }
+    }
+
+    public void add(int matNo, int position) {
+        if (pendingCount == pending.length) pending = Arrays.copyOf(pending, pendingCount * 2);
+        pending[pendingCount++] = ((long) matNo << 32) | (position & POSITION_MASK);
+    }
+
+    public int size() { return sorted.length + pendingCount; }
+
+    // All entries with min <= matNo <= max (inclusive), in matNo order; empty if min > max
+    public Range range(int min, int max) {
+        mergePending();
+        long[] entries = sorted;
+        if (min > max) return new Range(entries, 0, 0);
+        int from = lowerBound(entries, (long) min << 32);
+        int to = max == Integer.MAX_VALUE ? entries.length : lowerBound(entries, (long) (max + 1) << 32);
+        return new Range(entries, from, to);
+    }
+
+    // ------------------------- Internals -------------------------
+    private void mergePending() {
+        if (pendingCount == 0) return;
+        long[] batch = Arrays.copyOf(pending, pendingCount);
+        Arrays.sort(batch);
+        long[] merged = new long[sorted.length + batch.length];
+        int i = 0, j = 0, k = 0;
+        while (i < sorted.length && j < batch.length) merged[k++] = sorted[i] <= batch[j] ? sorted[i++] : batch[j++];
+        while (i < sorted.length) merged[k++] = sorted[i++];
+        while (j < batch.length) merged[k++] = batch[j++];
+        sorted = merged;
+        pendingCount = 0;
+        if (pending.length > 1024) pending = new long[16]; // do not keep a bulk load's buffer around
+    }
+
+    // First index whose entry is >= key
+    private static int lowerBound(long[] a, long key) {
+        int lo = 0;
+        int hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
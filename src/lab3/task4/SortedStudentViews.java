@@ -0,0 +1,191 @@
+package lab3.task4;
+
+import java.util.Arrays;
+
+/*
+ * Lab 3 - Task 4 (extension): Incrementally maintained sort orders
+ * ----------------------------------------------------------------
+ * Keeps registry positions in name order and in (birthYear, name) order, so sorted reads do not
+ * copy and re-sort the registry. Sort keys are precomputed once per student: names are stored
+ * case-folded (toLowerCase(toUpperCase(c)) per char, the folding String.CASE_INSENSITIVE_ORDER
+ * applies on every comparison), so orders are built with plain String.compareTo.
+ *
+ * Like SortedMatricIndex, new positions go to a pending buffer that is sorted and merged into a
+ * new array on the next read; arrays handed out are never modified afterwards, so a view keeps
+ * iterating a consistent order while students are added. A setter does not remove the position
+ * right away: it goes to the pending buffer again and its old entry is marked stale, and the next
+ * merge skips stale entries. A batch of renames therefore costs one merge, not one array copy each.
+ */
+class SortedStudentViews {
+    // Orders positions by precomputed keys; no boxing
+    private interface PositionOrder {
+        int compare(int a, int b);
+    }
+
+    // One maintained order: sorted positions + unsorted pending ones
+    private static final class Order {
+        private final PositionOrder cmp;
+        private int[] sorted = new int[0];
+        private int[] pending = new int[16];
+        private int pendingCount;
+        private boolean[] queued = new boolean[16]; // position is in pending; its entry in sorted (if any) is stale
+        private int staleCount;
+
+        Order(PositionOrder cmp) { this.cmp = cmp; }
+
+        void add(int position) {
+            if (position >= queued.length) queued = Arrays.copyOf(queued, Math.max(position + 1, queued.length * 2));
+            queued[position] = true;
+            enqueue(position);
+        }
+
+        // Re-queues 'position' after its keys changed; the old entry in sorted is dropped on the next merge
+        void requeue(int position) {
+            if (queued[position]) return; // already pending, sorted with its current keys
+            queued[position] = true;
+            staleCount++;
+            enqueue(position);
+        }
+
+        // Current order; merges pending positions first (one sort of the batch + one linear merge
+        // that skips stale entries)
+        int[] sorted() {
+            if (pendingCount == 0) return sorted;
+            int[] batch = Arrays.copyOf(pending, pendingCount);
+            mergeSort(batch, new int[batch.length], 0, batch.length, cmp);
+            int[] merged = new int[sorted.length - staleCount + batch.length];
+            int i = 0, j = 0, k = 0;
+            while (i < sorted.length && j < batch.length) {
+                if (queued[sorted[i]]) i++;
+                else merged[k++] = cmp.compare(sorted[i], batch[j]) <= 0 ? sorted[i++] : batch[j++];
+            }
+            for (; i < sorted.length; i++) if (!queued[sorted[i]]) merged[k++] = sorted[i];
+            while (j < batch.length) merged[k++] = batch[j++];
+            for (int p : batch) queued[p] = false;
+            sorted = merged;
+            pendingCount = 0;
+            staleCount = 0;
+            if (pending.length > 1024) pending = new int[16];
+            return sorted;
+        }
+
+        private void enqueue(int position) {
+            if (pendingCount == pending.length) pending = Arrays.copyOf(pending, pendingCount * 2);
+            pending[pendingCount++] = position;
+        }
+    }
+
+    private String[] lastKeys = new String[16];
+    private String[] firstKeys = new String[16];
+    private int[] matNos = new int[16];
+    private int[] birthYears = new int[16];
+    private int count;
+
+    // lastName, firstName (case-insensitive), then matNo: the order of sortedByName
+    private final Order byName = new Order((a, b) -> {
+        int c = compareNames(a, b);
+        return c != 0 ? c : Integer.compare(matNos[a], matNos[b]);
+    });
+
+    // birthYear ascending (= age descending), then names, then insertion order: sortedByAgeDescending
+    private final Order byBirthYear = new Order((a, b) -> {
+        int c = Integer.compare(birthYears[a], birthYears[b]);
+        if (c == 0) c = compareNames(a, b);
+        return c != 0 ? c : Integer.compare(a, b);
+    });
+
+    // Positions must be added as 0, 1, 2, ...
+    public void add(int position, Student s) {
+        if (position != count) throw new IllegalArgumentException("Expected position " + count + ", got " + position);
+        if (count == matNos.length) {
+            int n = count * 2;
+            lastKeys = Arrays.copyOf(lastKeys, n);
+            firstKeys = Arrays.copyOf(firstKeys, n);
+            matNos = Arrays.copyOf(matNos, n);
+            birthYears = Arrays.copyOf(birthYears, n);
+        }
+        count++;
+        setKeys(position, s);
+        byName.add(position);
+        byBirthYear.add(position);
+    }
+
+    // Re-sorts 'position' after a setter changed its name or birth year; O(1), the orders catch up on the next read
+    public void update(int position, Student s) {
+        if (position < 0 || position >= count) throw new IndexOutOfBoundsException("position " + position);
+        if (lastKeys[position].equals(fold(s.getLastName())) && firstKeys[position].equals(fold(s.getFirstName()))
+                && birthYears[position] == s.getBirthYear()) {
+            return;
+        }
+        setKeys(position, s);
+        byName.requeue(position);
+        byBirthYear.requeue(position);
+    }
+
+    // Maintained orders; callers must not modify the returned arrays
+    public int[] nameOrder() { return byName.sorted(); }
+    public int[] birthYearOrder() { return byBirthYear.sorted(); }
+
+    public int birthYearAt(int position) { return birthYears[position]; }
+
+    // Sorts positions by name, then position (used for the age-0 group, which spans several years)
+    public void sortByNameThenPosition(int[] positions) {
+        mergeSort(positions, new int[positions.length], 0, positions.length, (a, b) -> {
+            int c = compareNames(a, b);
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+    }
+
+    // ------------------------- Internals -------------------------
+    private void setKeys(int position, Student s) {
+        lastKeys[position] = fold(s.getLastName());
+        firstKeys[position] = fold(s.getFirstName());
+        matNos[position] = s.getMatriculationNumber();
+        birthYears[position] = s.getBirthYear();
+    }
+
+    private int compareNames(int a, int b) {
+        int c = lastKeys[a].compareTo(lastKeys[b]);
+        return c != 0 ? c : firstKeys[a].compareTo(firstKeys[b]);
+    }
+
+    // Per-char folding of String.CASE_INSENSITIVE_ORDER; compareTo on folded keys gives the same order
+    static String fold(String s) {
+        char[] chars = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            char f = Character.toLowerCase(Character.toUpperCase(c));
+            if (f != c) {
+                if (chars == null) chars = s.toCharArray();
+                chars[i] = f;
+            }
+        }
+        return chars == null ? s : new String(chars);
+    }
+
+    // Stable top-down merge sort of a[from, to) with an int comparator
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, PositionOrder cmp) {
+        if (to - from < 2) return;
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int v = a[i];
+                int j = i - 1;
+                while (j >= from && cmp.compare(a[j], v) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid, cmp);
+        mergeSort(a, tmp, mid, to, cmp);
+        if (cmp.compare(a[mid - 1], a[mid]) <= 0) return; // already in order
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) a[k++] = cmp.compare(tmp[i], tmp[j]) <= 0 ? tmp[i++] : tmp[j++];
+        while (i < mid) a[k++] = tmp[i++];
+        while (j < to) a[k++] = tmp[j++];
+    }
+}
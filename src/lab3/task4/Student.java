@@ -0,0 +1,64 @@
+package lab3.task4;
+
+/*
+ * Lab 3 - Task 4: Domain model
+ * ----------------------------
+ * Keep Student simple and self-contained for this task/package. Setters report to the owning
+ * registry (see StudentRegistry.reindex), so its indexes never go stale.
+ */
+class Student {
+    private final int matriculationNumber; // unique identifier
+    private String firstName;
+    private String lastName;
+    private int birthYear; // for simple age calculation
+    private StudentRegistry owner; // registry whose indexes cover this student; setters notify it
+
+    public Student(int matriculationNumber, String firstName, String lastName, int birthYear) {
+        this.matriculationNumber = matriculationNumber;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.birthYear = birthYear;
+    }
+
+    public int getMatriculationNumber() { return matriculationNumber; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public int getBirthYear() { return birthYear; }
+
+    public String getFullName() { return firstName + " " + lastName; }
+
+    // Reference year is cached per day (see ReferenceYearClock); no Calendar per call
+    public int getAge() {
+        int currentYear = ReferenceYearClock.SYSTEM.currentYear();
+        return Math.max(0, currentYear - birthYear);
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+        changed();
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+        changed();
+    }
+
+    public void setBirthYear(int birthYear) {
+        this.birthYear = birthYear;
+        changed();
+    }
+
+    StudentRegistry getOwner() { return owner; }
+    void setOwner(StudentRegistry owner) { this.owner = owner; }
+
+    // Keeps the owning registry's name and birth-year indexes in step with the fields
+    private void changed() {
+        if (owner != null) owner.reindex(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Student{matNo=%d, name=%s %s, birthYear=%d, age=%d}",
+                matriculationNumber, firstName, lastName, birthYear, getAge());
+    }
+}
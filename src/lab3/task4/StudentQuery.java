@@ -0,0 +1,113 @@
+package lab3.task4;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/*
+ * Lab 3 - Task 4 (extension): Declarative queries and an index-aware planner
+ * --------------------------------------------------------------------------
+ * StudentQuery describes a conjunction of conditions the registry can see into (name contains,
+ * matNo range, age / birth-year bounds) plus optional opaque predicates. StudentRegistry turns it
+ * into a QueryPlan: every condition that has an index becomes an IndexStep with a cheap size
+ * estimate; the most selective step drives, further steps are intersected as PositionBitmaps
+ * when they are small enough compared to the candidates, and everything else is checked per
+ * candidate.
+ * explain() prints the chosen plan.
+ *
+ *   reg.query(StudentQuery.where().nameContains("an").matricBetween(1002, 1004).youngerThan(30))
+ */
+final class StudentQuery {
+    private final List<String> nameParts = new ArrayList<>();
+    private boolean hasMatricRange;
+    private int matricMin = Integer.MIN_VALUE;
+    private int matricMax = Integer.MAX_VALUE;
+    private Integer olderThan;   // age > olderThan
+    private Integer youngerThan; // age < youngerThan
+    private long birthYearMin = Long.MIN_VALUE;
+    private long birthYearMax = Long.MAX_VALUE;
+    private final List<String> otherLabels = new ArrayList<>();
+    private final List<Predicate<Student>> others = new ArrayList<>();
+
+    private StudentQuery() {}
+
+    public static StudentQuery where() { return new StudentQuery(); }
+
+    // Same semantics as findByPartialName (case-insensitive substring of the full name)
+    public StudentQuery nameContains(String part) {
+        nameParts.add(part);
+        return this;
+    }
+
+    // Inclusive; repeated calls narrow the range
+    public StudentQuery matricBetween(int min, int max) {
+        hasMatricRange = true;
+        matricMin = Math.max(matricMin, min);
+        matricMax = Math.min(matricMax, max);
+        return this;
+    }
+
+    public StudentQuery olderThan(int age) {
+        olderThan = olderThan == null ? age : Math.max(olderThan, age);
+        return this;
+    }
+
+    public StudentQuery youngerThan(int age) {
+        youngerThan = youngerThan == null ? age : Math.min(youngerThan, age);
+        return this;
+    }
+
+    public StudentQuery bornBetween(int fromYear, int toYear) {
+        birthYearMin = Math.max(birthYearMin, fromYear);
+        birthYearMax = Math.min(birthYearMax, toYear);
+        return this;
+    }
+
+    // Opaque condition; always evaluated per candidate. The label shows up in explain().
+    public StudentQuery and(String label, Predicate<Student> predicate) {
+        otherLabels.add(label);
+        others.add(predicate);
+        return this;
+    }
+
+    List<String> getNameParts() { return nameParts; }
+    boolean hasMatricRange() { return hasMatricRange; }
+    int getMatricMin() { return matricMin; }
+    int getMatricMax() { return matricMax; }
+    List<String> getOtherLabels() { return otherLabels; }
+    List<Predicate<Student>> getOthers() { return others; }
+
+    boolean hasBirthYearRange() {
+        return olderThan != null || youngerThan != null || birthYearMin != Long.MIN_VALUE || birthYearMax != Long.MAX_VALUE;
+    }
+
+    // Age and birth-year conditions as one inclusive birth-year range [0] .. [1] for 'currentYear'
+    // (age = max(0, currentYear - birthYear), so age > a <=> birthYear <= currentYear - a - 1 for a >= 0, etc.)
+    long[] birthYearRange(int currentYear) {
+        long lo = birthYearMin;
+        long hi = birthYearMax;
+        if (olderThan != null && olderThan >= 0) hi = Math.min(hi, (long) currentYear - olderThan - 1);
+        if (youngerThan != null) {
+            if (youngerThan <= 0) return new long[] {1, 0}; // no age is below 0
+            lo = Math.max(lo, (long) currentYear - youngerThan + 1);
+        }
+        return new long[] {lo, hi};
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        for (String p : nameParts) parts.add("name contains \"" + p + "\"");
+        if (hasMatricRange) parts.add("matNo in [" + matricMin + ", " + matricMax + "]");
+        if (olderThan != null) parts.add("age > " + olderThan);
+        if (youngerThan != null) parts.add("age < " + youngerThan);
+        if (birthYearMin != Long.MIN_VALUE || birthYearMax != Long.MAX_VALUE) {
+            parts.add("birthYear in [" + bound(birthYearMin) + ", " + bound(birthYearMax) + "]");
+        }
+        parts.addAll(otherLabels);
+        return parts.isEmpty() ? "all students" : String.join(" AND ", parts);
+    }
+
+    static String bound(long v) {
+        return v == Long.MIN_VALUE ? "-inf" : v == Long.MAX_VALUE ? "+inf" : Long.toString(v);
+    }
+}
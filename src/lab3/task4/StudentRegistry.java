@@ -0,0 +1,248 @@
+package lab3.task4;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/*
+ * Lab 3 - Task 4: Registry using Collections
+ * ------------------------------------------
+ * Insertion-ordered storage plus primitive and sorted indexes that answer the searches and
+ * orders of the task without scanning or re-sorting the whole roster.
+ */
+class StudentRegistry {
+    // Primary storage keeps insertion order and allows indexing; append-only chunks, so
+    // snapshots are free (see StudentVector)
+    private final StudentVector students = new StudentVector();
+
+    // One primitive hash table both prevents duplicate matric numbers (like a Set) and gives
+    // O(1) lookups (like a Map), without boxing the int keys (see MatricIndex)
+    private final MatricIndex byMatric = new MatricIndex();
+
+    // matNo-ordered positions for range queries (see SortedMatricIndex)
+    private final SortedMatricIndex byMatricOrder = new SortedMatricIndex();
+
+    // Birth year -> positions, for age queries and age ordering (see BirthYearIndex)
+    private final BirthYearIndex byBirthYear = new BirthYearIndex();
+
+    // Name and (birthYear, name) orders with case-folded keys (see SortedStudentViews)
+    private final SortedStudentViews sortedViews = new SortedStudentViews();
+
+    // Substring index over the full names, kept up to date by addStudent and the Student setters (see TrigramIndex)
+    private final TrigramIndex byNamePart = new TrigramIndex();
+
+    // Add student if not already present (by matriculation number); a single probe does both.
+    // A Student object can be indexed by one registry only, since its setters report to that one.
+    public boolean addStudent(Student s) {
+        if (s.getOwner() != null && s.getOwner() != this) {
+            throw new IllegalArgumentException("Student is registered in another registry: " + s.getMatriculationNumber());
+        }
+        int position = students.size();
+        if (byMatric.putIfAbsent(s.getMatriculationNumber(), position) == MatricIndex.MISSING) {
+            students.add(s);
+            s.setOwner(this);
+            byMatricOrder.add(s.getMatriculationNumber(), position);
+            byNamePart.add(position, s.getFullName());
+            byBirthYear.add(position, s.getBirthYear());
+            sortedViews.add(position, s);
+            return true;
+        }
+        return false; // duplicate matric number
+    }
+
+    // Called by the Student setters after a name or birth-year change, so searches, sorted views
+    // and query plans see the new values
+    void reindex(Student s) {
+        int position = byMatric.get(s.getMatriculationNumber());
+        if (position == MatricIndex.MISSING || students.get(position) != s) {
+            throw new IllegalStateException("Student is not registered here: " + s.getMatriculationNumber());
+        }
+        byNamePart.update(position, s.getFullName());
+        byBirthYear.update(position, s.getBirthYear());
+        sortedViews.update(position, s);
+    }
+
+    // Read-only snapshot in O(1): later adds do not show up in it and do not invalidate it.
+    // Copy it (new ArrayList<>(reg.asList())) if a mutable list is needed.
+    public List<Student> asList() { return students.snapshot(); }
+
+    public Student findByMatric(int matNo) {
+        int position = byMatric.get(matNo);
+        return position == MatricIndex.MISSING ? null : students.get(position);
+    }
+
+    // Generic filter helper using a lambda Predicate
+    public List<Student> filter(Predicate<Student> predicate) {
+        List<Student> result = new ArrayList<>();
+        students.forEach(s -> {
+            if (predicate.test(s)) result.add(s);
+        });
+        return result;
+    }
+
+    // Same result as filter, computed on the common ForkJoinPool for large registries (see
+    // ParallelStudentFilter); small ones are scanned sequentially. The predicate must be thread-safe.
+    public List<Student> parallelFilter(Predicate<Student> predicate) {
+        return parallelFilter(predicate, ForkJoinPool.commonPool());
+    }
+
+    public List<Student> parallelFilter(Predicate<Student> predicate, ForkJoinPool pool) {
+        return ParallelStudentFilter.filter(students, predicate, pool);
+    }
+
+    // Search features
+    // Case-insensitive substring search via the trigram index; results in insertion order
+    public List<Student> findByPartialName(String part) {
+        int[] positions = byNamePart.search(part);
+        List<Student> result = new ArrayList<>(positions.length);
+        for (int p : positions) result.add(students.get(p));
+        return result;
+    }
+
+    // Range lookup in O(log n + k) via the sorted index; results in insertion order, as before
+    public List<Student> findByMatricRange(int min, int max) {
+        int[] positions = byMatricOrder.range(min, max).positions();
+        Arrays.sort(positions);
+        List<Student> result = new ArrayList<>(positions.length);
+        for (int p : positions) result.add(students.get(p));
+        return result;
+    }
+
+    // Lazy, read-only view ordered by matriculation number; nothing is copied, Students are fetched
+    // on access. It reflects the registry at the time of the call (later adds are not visible).
+    public List<Student> matricRangeView(int min, int max) {
+        SortedMatricIndex.Range range = byMatricOrder.range(min, max);
+        return new AbstractList<Student>() {
+            @Override public Student get(int index) { return students.get(range.positionAt(index)); }
+            @Override public int size() { return range.size(); }
+        };
+    }
+
+    // Age conditions as birth-year ranges (age = max(0, currentYear - birthYear)); insertion order
+    public List<Student> findOlderThan(int age) {
+        if (age < 0) return new ArrayList<>(students);
+        return atPositions(byBirthYear.positions(Long.MIN_VALUE, (long) ReferenceYearClock.SYSTEM.currentYear() - age - 1));
+    }
+
+    public List<Student> findYoungerThan(int age) {
+        if (age <= 0) return new ArrayList<>();
+        return atPositions(byBirthYear.positions((long) ReferenceYearClock.SYSTEM.currentYear() - age + 1, Long.MAX_VALUE));
+    }
+
+    private List<Student> atPositions(int[] positions) {
+        List<Student> result = new ArrayList<>(positions.length);
+        for (int p : positions) result.add(students.get(p));
+        return result;
+    }
+
+    // Declarative search: the planner drives from the most selective index, intersects the other
+    // cheap candidate sets as bitmaps and checks leftover conditions per candidate. Insertion order.
+    public List<Student> query(StudentQuery q) { return plan(q).execute(students); }
+
+    // Human-readable plan that query(q) would execute right now
+    public String explain(StudentQuery q) { return plan(q).explain(); }
+
+    QueryPlan plan(StudentQuery q) {
+        List<QueryPlan.IndexStep> steps = new ArrayList<>();
+        if (q.hasMatricRange()) {
+            int min = q.getMatricMin();
+            int max = q.getMatricMax();
+            SortedMatricIndex.Range range = byMatricOrder.range(min, max);
+            steps.add(new QueryPlan.IndexStep("matNo in [" + min + ", " + max + "]", "sorted matNo index", range.size(),
+                    () -> PositionBitmap.of(range.positions()),
+                    s -> s.getMatriculationNumber() >= min && s.getMatriculationNumber() <= max));
+        }
+        if (q.hasBirthYearRange()) {
+            long[] years = q.birthYearRange(ReferenceYearClock.SYSTEM.currentYear());
+            long from = years[0];
+            long to = years[1];
+            steps.add(new QueryPlan.IndexStep("birthYear in [" + StudentQuery.bound(from) + ", " + StudentQuery.bound(to) + "]", "birth-year index",
+                    byBirthYear.count(from, to),
+                    () -> PositionBitmap.ofSorted(byBirthYear.positions(from, to)),
+                    s -> s.getBirthYear() >= from && s.getBirthYear() <= to));
+        }
+        for (String part : q.getNameParts()) {
+            String needle = part.toLowerCase();
+            steps.add(new QueryPlan.IndexStep("name contains \"" + part + "\"", "trigram index", byNamePart.estimate(part),
+                    () -> PositionBitmap.ofSorted(byNamePart.search(part)),
+                    s -> s.getFullName().toLowerCase().contains(needle)));
+        }
+        return new QueryPlan(q, students.size(), steps);
+    }
+
+    // Bitmap forms of the filters above, over registry positions. Combine them with and / or / andNot
+    // and materialize once with studentsAt; no intermediate Student lists are built.
+    public PositionBitmap partialNameBitmap(String part) { return PositionBitmap.ofSorted(byNamePart.search(part)); }
+
+    public PositionBitmap matricRangeBitmap(int min, int max) { return PositionBitmap.of(byMatricOrder.range(min, max).positions()); }
+
+    public PositionBitmap olderThanBitmap(int age) {
+        if (age < 0) return allBitmap();
+        return PositionBitmap.ofSorted(byBirthYear.positions(Long.MIN_VALUE, (long) ReferenceYearClock.SYSTEM.currentYear() - age - 1));
+    }
+
+    public PositionBitmap youngerThanBitmap(int age) {
+        if (age <= 0) return PositionBitmap.EMPTY;
+        return PositionBitmap.ofSorted(byBirthYear.positions((long) ReferenceYearClock.SYSTEM.currentYear() - age + 1, Long.MAX_VALUE));
+    }
+
+    public PositionBitmap allBitmap() {
+        int[] all = new int[students.size()];
+        for (int p = 0; p < all.length; p++) all[p] = p;
+        return PositionBitmap.ofSorted(all);
+    }
+
+    // Students at the bitmap's positions, in insertion order
+    public List<Student> studentsAt(PositionBitmap rows) {
+        List<Student> result = new ArrayList<>(rows.cardinality());
+        rows.forEach(p -> result.add(students.get(p)));
+        return result;
+    }
+
+    // Sorting options (return new lists, keep internal order intact). The orders are maintained
+    // incrementally (see SortedStudentViews / SortedMatricIndex), so these only copy, never sort.
+    public List<Student> sortedByName() { return new ArrayList<>(sortedByNameView()); }
+
+    public List<Student> sortedByMatric() { return new ArrayList<>(sortedByMatricView()); }
+
+    public List<Student> sortedByAgeDescending() { return new ArrayList<>(sortedByAgeDescendingView()); }
+
+    // Read-only views over the maintained orders: O(1) setup (after merging recent adds), suited for
+    // iterating or paging with subList. Each view keeps the order it was created with.
+    public List<Student> sortedByNameView() {
+        int[] order = sortedViews.nameOrder();
+        return positionsView(order, order, order.length);
+    }
+
+    public List<Student> sortedByMatricView() { return matricRangeView(Integer.MIN_VALUE, Integer.MAX_VALUE); }
+
+    // Ascending birth year = descending age. Everyone born this year or later has age 0 and is
+    // ordered by name alone, so only that (normally empty) tail is sorted per call.
+    public List<Student> sortedByAgeDescendingView() {
+        int currentYear = ReferenceYearClock.SYSTEM.currentYear();
+        int[] order = sortedViews.birthYearOrder();
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedViews.birthYearAt(order[mid]) < currentYear) lo = mid + 1;
+            else hi = mid;
+        }
+        int[] ageZero = Arrays.copyOfRange(order, lo, order.length);
+        sortedViews.sortByNameThenPosition(ageZero);
+        return positionsView(order, ageZero, lo);
+    }
+
+    // Positions head[0, split) followed by all of tail, resolved to students on access
+    private List<Student> positionsView(int[] head, int[] tail, int split) {
+        int size = head == tail ? split : split + tail.length;
+        class PositionsView extends AbstractList<Student> implements RandomAccess {
+            @Override public Student get(int index) {
+                if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + " of " + size);
+                return students.get(index < split ? head[index] : tail[index - split]);
+            }
+            @Override public int size() { return size; }
+        }
+        return new PositionsView();
+    }
+}
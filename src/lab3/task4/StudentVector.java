@@ -0,0 +1,88 @@
+package lab3.task4;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/*
+ * Lab 3 - Task 4 (extension): Append-only chunked vector with O(1) snapshots
+ * --------------------------------------------------------------------------
+ * Primary storage of StudentRegistry. Students live in fixed-size chunks (1024 slots) referenced
+ * from a spine array. Task 4 never removes or replaces a slot, only appends, so a snapshot is just
+ * (spine, size): slots below 'size' are never written again and slots at or above it are never
+ * read by that snapshot. Taking a snapshot therefore copies nothing, and later appends do not
+ * disturb it. Growing copies only the spine (one reference per 1024 students); the chunks
+ * themselves are shared by the vector and every snapshot (structural sharing).
+ *
+ * A snapshot sees the Student objects themselves, so setter changes are visible through it;
+ * it is stable with respect to which students it contains and in which order.
+ */
+final class StudentVector extends AbstractList<Student> implements RandomAccess {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private Student[][] spine = new Student[4][];
+    private int size;
+
+    @Override
+    public boolean add(Student s) {
+        if (s == null) throw new NullPointerException("student");
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == spine.length) spine = Arrays.copyOf(spine, chunk * 2);
+        if (spine[chunk] == null) spine[chunk] = new Student[CHUNK_SIZE];
+        spine[chunk][size & CHUNK_MASK] = s;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Student get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + " of " + size);
+        return spine[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public void forEach(Consumer<? super Student> action) { forEach(spine, size, action); }
+
+    // Immutable view of the current contents in O(1)
+    public List<Student> snapshot() { return new Snapshot(spine, size); }
+
+    // Chunk-wise loop; avoids the per-element index split of get()
+    private static void forEach(Student[][] spine, int size, Consumer<? super Student> action) {
+        for (int c = 0, left = size; left > 0; c++, left -= CHUNK_SIZE) {
+            Student[] chunk = spine[c];
+            int n = Math.min(left, CHUNK_SIZE);
+            for (int i = 0; i < n; i++) action.accept(chunk[i]);
+        }
+    }
+
+    // Read-only; AbstractList throws UnsupportedOperationException for every mutator
+    private static final class Snapshot extends AbstractList<Student> implements RandomAccess {
+        private final Student[][] spine;
+        private final int size;
+
+        Snapshot(Student[][] spine, int size) {
+            this.spine = spine;
+            this.size = size;
+        }
+
+        @Override
+        public Student get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + " of " + size);
+            return spine[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() { return size; }
+
+        @Override
+        public void forEach(Consumer<? super Student> action) { StudentVector.forEach(spine, size, action); }
+    }
+}
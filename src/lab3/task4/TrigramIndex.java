@@ -0,0 +1,271 @@
+package lab3.task4;
+
+import java.util.Arrays;
+
+/*
+ * Lab 3 - Task 4 (extension): Trigram index for substring search
+ * ---------------------------------------------------------------
+ * Inverted index from every 3-character substring (trigram) of a lower-cased full name to the
+ * sorted list of registry positions whose name contains it. A query for "ders" only has to look
+ * at students that contain both "der" and "ers": the posting lists of the query's trigrams are
+ * intersected (smallest first), and the few remaining candidates are verified with contains()
+ * against the stored lower-cased name, so results are exactly those of the old linear scan.
+ * Queries shorter than three characters have no trigram and scan the stored names instead
+ * (still without lower-casing every name again).
+ *
+ * Trigrams are packed into a long (3 x 16-bit chars) and kept in an open-addressing table with
+ * one growable int[] posting list per trigram; positions are appended in increasing order, so
+ * posting lists stay sorted without extra work.
+ *
+ * Renames (Student setters) do not shift posting lists. Trigrams of the new name are appended to
+ * an unsorted tail of each list, which is sorted into the list when a search next reads it, and
+ * entries for trigrams of the old name are left in place: they are stale, and the contains()
+ * check drops them from results. Once stale entries make up half of all entries, the whole index
+ * is rebuilt from the stored names, so a rename costs O(name length) amortized.
+ */
+class TrigramIndex {
+    private static final int[] EMPTY = new int[0];
+    private static final long USED = 1L << 48; // marks occupied cells; every packed trigram has it
+
+    private String[] names = new String[16]; // lower-cased full name per position
+    private int count;
+
+    // trigram -> posting list (table of keys, lists and list sizes)
+    private long[] keys = new long[64];
+    private int[][] postings = new int[64][];
+    private int[] sizes = new int[64];    // sorted prefix of each list
+    private int[] unsorted = new int[64]; // entries appended after the sorted prefix by update()
+    private int mask = 63;
+    private int trigramCount;
+    private long entries;      // posting entries in all lists
+    private long staleEntries; // entries left behind by renames (upper bound)
+
+    public int size() { return count; }
+
+    // Indexes the next position; positions must be added as 0, 1, 2, ...
+    public void add(int position, String fullName) {
+        if (position != count) throw new IllegalArgumentException("Expected position " + count + ", got " + position);
+        if (count == names.length) names = Arrays.copyOf(names, count * 2);
+        String text = normalize(fullName);
+        names[count++] = text;
+        for (int i = 0; i + 3 <= text.length(); i++) append(trigram(text, i), position);
+    }
+
+    // Re-indexes 'position' after its name changed (Student setters)
+    public void update(int position, String fullName) {
+        if (position < 0 || position >= count) throw new IndexOutOfBoundsException("position " + position);
+        String old = names[position];
+        String text = normalize(fullName);
+        if (old.equals(text)) return;
+        for (int i = 0; i + 3 <= old.length(); i++) {
+            if (!hasTrigram(text, old, i)) staleEntries++;
+        }
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            if (!hasTrigram(old, text, i)) append(trigram(text, i), position); // shared trigrams stay valid
+        }
+        names[position] = text;
+        if (staleEntries * 2 > entries) rebuild();
+    }
+
+    // Positions (ascending, i.e. registry order) whose lower-cased full name contains 'part' lower-cased
+    public int[] search(String part) {
+        String needle = normalize(part);
+        if (needle.length() < 3) return scan(needle);
+
+        // Posting lists of the query's trigrams, smallest first; one missing trigram means no match
+        int n = needle.length() - 2;
+        int[] cells = new int[n];
+        for (int i = 0; i < n; i++) {
+            int cell = find(trigram(needle, i));
+            if (cell < 0) return EMPTY;
+            settle(cell);
+            cells[i] = cell;
+        }
+        sortBySize(cells);
+
+        int[] candidates = Arrays.copyOf(postings[cells[0]], sizes[cells[0]]);
+        int len = candidates.length;
+        for (int k = 1; k < n && len > 0; k++) {
+            if (cells[k] == cells[k - 1]) continue; // repeated trigram in the query
+            len = intersect(candidates, len, postings[cells[k]], sizes[cells[k]]);
+        }
+
+        int matches = 0;
+        for (int i = 0; i < len; i++) {
+            int p = candidates[i];
+            if (names[p].contains(needle)) candidates[matches++] = p;
+        }
+        return Arrays.copyOf(candidates, matches);
+    }
+
+    // Upper bound for the number of hits of search(part), from posting list sizes only (for planning)
+    public int estimate(String part) {
+        String needle = normalize(part);
+        if (needle.length() < 3) return count;
+        int min = count;
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            int cell = find(trigram(needle, i));
+            if (cell < 0) return 0;
+            min = Math.min(min, sizes[cell] + unsorted[cell]);
+        }
+        return min;
+    }
+
+    // ------------------------- Internals -------------------------
+    // Same normalization as the old findByPartialName: String.toLowerCase() on the whole name
+    private static String normalize(String s) { return s.toLowerCase(); }
+
+    private static long trigram(String s, int i) {
+        return USED | ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    // Whether s contains the trigram t[i, i + 3)
+    private static boolean hasTrigram(String s, String t, int i) {
+        return s.indexOf(t.substring(i, i + 3)) >= 0;
+    }
+
+    private int[] scan(String needle) {
+        int[] res = new int[16];
+        int n = 0;
+        for (int p = 0; p < count; p++) {
+            if (!names[p].contains(needle)) continue;
+            if (n == res.length) res = Arrays.copyOf(res, n * 2);
+            res[n++] = p;
+        }
+        return Arrays.copyOf(res, n);
+    }
+
+    // Keeps the elements of a[0..len) that also occur in b[0..bLen); both sorted. Returns the new length.
+    // Each element of the (smaller) candidate list is looked up by galloping through b.
+    private static int intersect(int[] a, int len, int[] b, int bLen) {
+        int out = 0;
+        int from = 0;
+        for (int i = 0; i < len && from < bLen; i++) {
+            int v = a[i];
+            int step = 1;
+            int hi = from;
+            while (hi < bLen && b[hi] < v) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int idx = Arrays.binarySearch(b, from, Math.min(hi + 1, bLen), v);
+            if (idx >= 0) {
+                a[out++] = v;
+                from = idx + 1;
+            } else {
+                from = -idx - 1;
+            }
+        }
+        return out;
+    }
+
+    private void sortBySize(int[] cells) {
+        for (int i = 1; i < cells.length; i++) {
+            int c = cells[i];
+            int j = i - 1;
+            while (j >= 0 && (sizes[cells[j]] > sizes[c] || (sizes[cells[j]] == sizes[c] && cells[j] > c))) {
+                cells[j + 1] = cells[j];
+                j--;
+            }
+            cells[j + 1] = c;
+        }
+    }
+
+    private int find(long key) {
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+            if (keys[i] == 0) return -1;
+        }
+    }
+
+    private int cellFor(long key) {
+        int i = hash(key) & mask;
+        while (keys[i] != 0 && keys[i] != key) i = (i + 1) & mask;
+        if (keys[i] == 0) {
+            keys[i] = key;
+            postings[i] = new int[2];
+            if (++trigramCount * 4 > keys.length * 3) {
+                grow();
+                return find(key);
+            }
+        }
+        return i;
+    }
+
+    // Positions from add() arrive in increasing order and extend the sorted prefix; renamed
+    // positions go to the unsorted tail until settle()
+    private void append(long key, int position) {
+        int cell = cellFor(key);
+        int[] list = postings[cell];
+        int n = sizes[cell] + unsorted[cell];
+        if (n > 0 && list[n - 1] == position) return; // trigram occurs twice in the same name
+        if (n == list.length) postings[cell] = list = Arrays.copyOf(list, n * 2);
+        list[n] = position;
+        if (unsorted[cell] == 0 && (n == 0 || list[n - 1] < position)) sizes[cell]++;
+        else unsorted[cell]++;
+        entries++;
+    }
+
+    // Sorts the tail into the list; a position that came back to a trigram it had before is kept once
+    private void settle(int cell) {
+        int u = unsorted[cell];
+        if (u == 0) return;
+        int[] list = postings[cell];
+        int n = sizes[cell];
+        Arrays.sort(list, n, n + u);
+        int[] merged = new int[n + u];
+        int i = 0, j = n, k = 0;
+        while (i < n || j < n + u) {
+            int v = j == n + u || (i < n && list[i] <= list[j]) ? list[i++] : list[j++];
+            if (k == 0 || merged[k - 1] != v) merged[k++] = v;
+        }
+        postings[cell] = merged;
+        sizes[cell] = k;
+        unsorted[cell] = 0;
+        entries -= n + u - k;
+    }
+
+    // Re-indexes every stored name; drops stale entries and empty posting lists
+    private void rebuild() {
+        keys = new long[64];
+        postings = new int[64][];
+        sizes = new int[64];
+        unsorted = new int[64];
+        mask = 63;
+        trigramCount = 0;
+        entries = 0;
+        staleEntries = 0;
+        for (int p = 0; p < count; p++) {
+            String text = names[p];
+            for (int i = 0; i + 3 <= text.length(); i++) append(trigram(text, i), p);
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[][] oldPostings = postings;
+        int[] oldSizes = sizes;
+        int[] oldUnsorted = unsorted;
+        int capacity = keys.length * 2;
+        keys = new long[capacity];
+        postings = new int[capacity][];
+        sizes = new int[capacity];
+        unsorted = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+            int j = hash(oldKeys[i]) & mask;
+            while (keys[j] != 0) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            postings[j] = oldPostings[i];
+            sizes[j] = oldSizes[i];
+            unsorted[j] = oldUnsorted[i];
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,150 @@
+package lab3.task6;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Asynchronous, batching log handler
+ * ---------------------------------------------------------------
+ * Decouples the threads that log (registry hot paths, imports) from the console. publish()
+ * only puts the record into a bounded ring buffer; a daemon thread takes whole batches out
+ * and hands them to the wrapped handler (e.g. a ConsoleHandler), flushing once per batch.
+ * When the ring is full the OverflowPolicy decides: DROP discards the record (and counts it),
+ * BLOCK makes the caller wait for space, so nothing is lost but back-pressure is possible.
+ *
+ * Records are formatted by the wrapped handler on the background thread, so parameterized
+ * messages ("Added student: {0}") cost the caller no String building at all.
+ */
+class AsyncBatchingHandler extends Handler {
+    enum OverflowPolicy { DROP, BLOCK }
+
+    static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH = 256;
+
+    private final Handler target;
+    private final OverflowPolicy policy;
+    private final Object lock = new Object();
+    private final LogRecord[] ring; // guarded by lock
+    private int head;               // next record to take
+    private int count;              // records in the ring
+    private long published;         // records handed to the target so far (for flush)
+    private long accepted;          // records put into the ring so far
+    private boolean closed;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+
+    AsyncBatchingHandler(Handler target) {
+        this(target, DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    AsyncBatchingHandler(Handler target, int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.target = target;
+        this.policy = policy;
+        this.ring = new LogRecord[capacity];
+        worker = new Thread(this::drainLoop, "async-log-handler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) return;
+        // Caller info is inferred from the stack, which only works on the logging thread (free if logp set it)
+        record.getSourceMethodName();
+        synchronized (lock) {
+            while (count == ring.length && !closed) {
+                if (policy == OverflowPolicy.DROP) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                    return;
+                }
+            }
+            if (closed) return;
+            ring[(head + count) % ring.length] = record;
+            count++;
+            accepted++;
+            if (count == 1) lock.notifyAll();
+        }
+    }
+
+    public long getDroppedCount() { return dropped.get(); }
+
+    // Waits until everything published so far has reached the target, then flushes it
+    @Override
+    public void flush() {
+        synchronized (lock) {
+            long goal = accepted;
+            while (published < goal && worker.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        target.flush();
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long lost = dropped.get();
+        if (lost > 0) target.publish(new LogRecord(Level.WARNING, "Async log handler dropped " + lost + " records"));
+        target.close();
+    }
+
+    private void drainLoop() {
+        LogRecord[] batch = new LogRecord[Math.min(MAX_BATCH, ring.length)];
+        while (true) {
+            int n;
+            synchronized (lock) {
+                while (count == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (count == 0) return; // closed and drained
+                n = Math.min(count, batch.length);
+                for (int i = 0; i < n; i++) {
+                    batch[i] = ring[head];
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                }
+                count -= n;
+                lock.notifyAll(); // space for blocked publishers
+            }
+            for (int i = 0; i < n; i++) {
+                try {
+                    target.publish(batch[i]);
+                } catch (RuntimeException e) {
+                    reportError("Wrapped handler failed", e, ErrorManager.WRITE_FAILURE);
+                }
+                batch[i] = null;
+            }
+            target.flush();
+            synchronized (lock) {
+                published += n;
+                lock.notifyAll(); // wake flush()
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package lab3.task6;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Lab 3 - Task 6 (extension): Asynchronous, coalescing saves
+ * ----------------------------------------------------------
+ * Backs StudentDataManager.saveTo*Async. Saves run on a small dedicated pool of daemon I/O
+ * threads, so the thread that mutates the registry never waits for the disk. Each target file
+ * has at most one save running and one queued: a save requested while another one is still
+ * queued replaces its snapshot and shares its future, so only the latest state is written.
+ */
+class AsyncSaveQueue {
+    private static final int IO_THREADS = 2;
+
+    // Shared by all StudentDataManager instances; threads are daemons so they never block JVM exit
+    static final AsyncSaveQueue SHARED = new AsyncSaveQueue(Executors.newFixedThreadPool(IO_THREADS, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "student-io-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }));
+
+    private static class Slot {
+        boolean running;
+        List<Student> queuedStudents;
+        StudentSaveAction queuedAction;
+        CompletableFuture<Void> queuedFuture;
+    }
+
+    private final Executor executor;
+    private final Map<String, Slot> slots = new HashMap<>(); // guarded by 'this'
+
+    AsyncSaveQueue(Executor executor) {
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> submit(String filename, List<Student> snapshot, StudentSaveAction action) {
+        boolean start = false;
+        CompletableFuture<Void> future;
+        synchronized (this) {
+            Slot slot = slots.computeIfAbsent(filename, k -> new Slot());
+            if (slot.queuedFuture == null) slot.queuedFuture = new CompletableFuture<>();
+            // Coalesce: a queued (not yet started) save just picks up the newer snapshot
+            slot.queuedStudents = snapshot;
+            slot.queuedAction = action;
+            future = slot.queuedFuture;
+            if (!slot.running) {
+                slot.running = true;
+                start = true;
+            }
+        }
+        if (start) {
+            try {
+                executor.execute(() -> drain(filename));
+            } catch (RejectedExecutionException e) {
+                synchronized (this) { slots.remove(filename); }
+                future.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+
+    // Runs queued saves for one file until none is left
+    private void drain(String filename) {
+        while (true) {
+            List<Student> students;
+            StudentSaveAction action;
+            CompletableFuture<Void> future;
+            synchronized (this) {
+                Slot slot = slots.get(filename);
+                if (slot.queuedFuture == null) {
+                    slots.remove(filename);
+                    return;
+                }
+                students = slot.queuedStudents;
+                action = slot.queuedAction;
+                future = slot.queuedFuture;
+                slot.queuedStudents = null;
+                slot.queuedAction = null;
+                slot.queuedFuture = null;
+            }
+            try {
+                action.save(students, filename);
+                future.complete(null);
+            } catch (DataPersistenceException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package lab3.task6;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Lab 3 - Task 6 (extension): Background snapshots + journal compaction
+ * ---------------------------------------------------------------------
+ * Takes a point-in-time view of the registry (O(1), chunk-level copy-on-write: writers are
+ * not stopped while the file is written and afterwards copy only the chunks they touch),
+ * writes it as a binary roster to a temp file, atomically
+ * swaps it in and then compacts the journal records it supersedes.
+ * Cadence: every 'intervalMillis' and/or as soon as the journal holds 'journalBytesThreshold'
+ * bytes (0 disables a trigger). Duration and bytes written are kept in SnapshotMetrics.
+ */
+class SnapshotMetrics {
+    private long snapshots;
+    private long failures;
+    private long lastDurationNanos;
+    private long totalDurationNanos;
+    private long lastBytes;
+    private long totalBytes;
+    private long lastSequence;
+
+    synchronized void recordSuccess(long durationNanos, long bytes, long sequence) {
+        snapshots++;
+        lastDurationNanos = durationNanos;
+        totalDurationNanos += durationNanos;
+        lastBytes = bytes;
+        totalBytes += bytes;
+        lastSequence = sequence;
+    }
+
+    synchronized void recordFailure() { failures++; }
+
+    public synchronized long getSnapshots() { return snapshots; }
+    public synchronized long getFailures() { return failures; }
+    public synchronized long getLastDurationNanos() { return lastDurationNanos; }
+    public synchronized long getTotalDurationNanos() { return totalDurationNanos; }
+    public synchronized long getLastBytes() { return lastBytes; }
+    public synchronized long getTotalBytes() { return totalBytes; }
+    public synchronized long getLastSequence() { return lastSequence; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SnapshotMetrics{snapshots=%d, failures=%d, lastDurationMs=%.3f, lastBytes=%d, totalBytes=%d, lastSequence=%d}",
+                snapshots, failures, lastDurationNanos / 1e6, lastBytes, totalBytes, lastSequence);
+    }
+}
+
+class BackgroundSnapshotter implements Closeable {
+    private static final Logger LOG = Logger.getLogger(BackgroundSnapshotter.class.getName());
+    private static final long CHECK_PERIOD_MILLIS = 100;
+
+    private final StudentRegistry registry;
+    private final StudentJournal journal; // may be null: snapshots only, nothing to compact
+    private final Path snapshotFile;
+    private final long intervalMillis;
+    private final long journalBytesThreshold;
+    private final SnapshotMetrics metrics = new SnapshotMetrics();
+
+    private ScheduledExecutorService scheduler;
+    private long lastSnapshotMillis = System.currentTimeMillis();
+
+    public BackgroundSnapshotter(StudentRegistry registry, StudentJournal journal, Path snapshotFile,
+                                 long intervalMillis, long journalBytesThreshold) {
+        this.registry = registry;
+        this.journal = journal;
+        this.snapshotFile = snapshotFile;
+        this.intervalMillis = intervalMillis;
+        this.journalBytesThreshold = journalBytesThreshold;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "student-snapshotter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotIfDue, CHECK_PERIOD_MILLIS, CHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public SnapshotMetrics getMetrics() { return metrics; }
+
+    // Writes one snapshot right away (also used for synchronous checkpoints); returns the sequence it covers
+    public synchronized long snapshotNow() throws IOException {
+        long start = System.nanoTime();
+        List<Student> view;
+        long seq;
+        synchronized (registry) {
+            // Journal records are appended inside the registry's synchronized mutators,
+            // so the view and the sequence describe the same instant
+            view = registry.snapshot();
+            seq = journal == null ? 0L : journal.getLastSequence();
+        }
+        try {
+            Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            StudentBinaryFormat.write(view, tmp, seq);
+            long bytes = Files.size(tmp);
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (journal != null) journal.compactThrough(seq);
+            lastSnapshotMillis = System.currentTimeMillis();
+            metrics.recordSuccess(System.nanoTime() - start, bytes, seq);
+            return seq;
+        } catch (IOException | RuntimeException e) {
+            metrics.recordFailure();
+            throw e;
+        }
+    }
+
+    private void snapshotIfDue() {
+        boolean due;
+        synchronized (this) {
+            due = (intervalMillis > 0 && System.currentTimeMillis() - lastSnapshotMillis >= intervalMillis)
+                    || (journal != null && journalBytesThreshold > 0 && journal.getSizeBytes() >= journalBytesThreshold);
+        }
+        if (!due) return;
+        try {
+            snapshotNow();
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Background snapshot failed", e);
+        }
+    }
+
+    // Stops the schedule; a snapshot that is already running completes first
+    @Override
+    public void close() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s == null) return;
+        s.shutdown();
+        try {
+            s.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
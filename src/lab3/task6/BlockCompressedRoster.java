@@ -0,0 +1,222 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Parallel block-compressed roster container
+ * ----------------------------------------------------------------------
+ * pigz-style container for shipping rosters between hosts. Students are cut into blocks of
+ * 'rowsPerBlock' rows; each block is encoded as CSV rows (StudentCsvWriter, no header) and
+ * deflated independently on a ForkJoinPool, and blocks are written in order while later
+ * blocks are still being compressed. A block index at the end of the file lets the reader
+ * inflate and parse all blocks in parallel (StudentCsvByteParser) and concatenate them in order.
+ *
+ * Layout (big-endian):
+ *   header   magic "STUZ", version
+ *   blocks   raw deflate streams, back to back
+ *   index    per block: long offset, int compressedLength, int rawLength, int rowCount, int crc32(raw)
+ *   trailer  long indexOffset, int blockCount, magic "STUZ"
+ */
+class BlockCompressedRoster {
+    static final int MAGIC = 0x5354555A; // "STUZ"
+    static final int VERSION = 1;
+    static final int DEFAULT_ROWS_PER_BLOCK = 64 * 1024;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int INDEX_ENTRY_SIZE = 24;
+    private static final int TRAILER_SIZE = 16;
+    private static final int ENCODE_BLOCK_SIZE = 256 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int rowsPerBlock;
+    private final int level;
+
+    public BlockCompressedRoster() {
+        this(ForkJoinPool.commonPool(), DEFAULT_ROWS_PER_BLOCK, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public BlockCompressedRoster(ForkJoinPool pool, int rowsPerBlock, int level) {
+        if (rowsPerBlock <= 0) throw new IllegalArgumentException("rowsPerBlock must be positive");
+        this.pool = pool;
+        this.rowsPerBlock = rowsPerBlock;
+        this.level = level;
+    }
+
+    private static class Block {
+        byte[] compressed;
+        int compressedLength;
+        int rawLength;
+        int rowCount;
+        int crc;
+    }
+
+    // ------------------------- Export -------------------------
+    public void write(List<Student> students, Path file) throws IOException {
+        int blockCount = (students.size() + rowsPerBlock - 1) / rowsPerBlock;
+        // Bounded read-ahead: at most a few blocks per worker are in memory at once
+        int window = Math.max(2, pool.getParallelism() * 2);
+        ArrayDeque<Future<Block>> inFlight = new ArrayDeque<>();
+        ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_SIZE + TRAILER_SIZE);
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            writeFully(ch, header);
+            int next = 0;
+            for (int b = 0; b < blockCount; b++) {
+                while (next < blockCount && inFlight.size() < window) {
+                    int from = next * rowsPerBlock;
+                    List<Student> rows = students.subList(from, Math.min(students.size(), from + rowsPerBlock));
+                    inFlight.add(pool.submit(() -> compress(rows)));
+                    next++;
+                }
+                Block block = await(inFlight.poll());
+                index.putLong(ch.position()).putInt(block.compressedLength).putInt(block.rawLength)
+                     .putInt(block.rowCount).putInt(block.crc);
+                writeFully(ch, ByteBuffer.wrap(block.compressed, 0, block.compressedLength));
+            }
+            long indexOffset = ch.position();
+            index.putLong(indexOffset).putInt(blockCount).putInt(MAGIC);
+            index.flip();
+            writeFully(ch, index);
+        } finally {
+            for (Future<Block> f : inFlight) f.cancel(true);
+        }
+    }
+
+    private Block compress(List<Student> rows) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rows.size() * 32);
+        try (StudentCsvWriter w = new StudentCsvWriter(Channels.newChannel(raw), false, ENCODE_BLOCK_SIZE)) {
+            for (Student s : rows) w.write(s);
+        }
+        byte[] input = raw.toByteArray();
+
+        Block block = new Block();
+        block.rawLength = input.length;
+        block.rowCount = rows.size();
+        CRC32 crc = new CRC32();
+        crc.update(input, 0, input.length);
+        block.crc = (int) crc.getValue();
+
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] out = new byte[Math.max(64, input.length / 2)];
+            int len = 0;
+            while (!deflater.finished()) {
+                if (len == out.length) out = Arrays.copyOf(out, out.length * 2);
+                len += deflater.deflate(out, len, out.length - len);
+            }
+            block.compressed = out;
+            block.compressedLength = len;
+        } finally {
+            deflater.end();
+        }
+        return block;
+    }
+
+    // ------------------------- Import -------------------------
+    public List<Student> read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readAt(ch, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) throw new IOException("Not a compressed roster file");
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported compressed roster version: " + version);
+
+            long size = ch.size();
+            ByteBuffer trailer = readAt(ch, size - TRAILER_SIZE, TRAILER_SIZE);
+            long indexOffset = trailer.getLong();
+            int blockCount = trailer.getInt();
+            if (trailer.getInt() != MAGIC || blockCount < 0
+                    || indexOffset + (long) blockCount * INDEX_ENTRY_SIZE != size - TRAILER_SIZE) {
+                throw new IOException("Corrupt compressed roster trailer");
+            }
+            ByteBuffer index = readAt(ch, indexOffset, blockCount * INDEX_ENTRY_SIZE);
+
+            List<Future<List<Student>>> parts = new ArrayList<>(blockCount);
+            long rows = 0;
+            for (int b = 0; b < blockCount; b++) {
+                long offset = index.getLong();
+                int compressedLength = index.getInt();
+                int rawLength = index.getInt();
+                int rowCount = index.getInt();
+                int crc = index.getInt();
+                rows += rowCount;
+                parts.add(pool.submit(() -> inflateAndParse(ch, offset, compressedLength, rawLength, rowCount, crc)));
+            }
+
+            List<Student> res = new ArrayList<>((int) Math.min(Integer.MAX_VALUE - 8, rows));
+            for (Future<List<Student>> part : parts) res.addAll(await(part));
+            return res;
+        }
+    }
+
+    private static List<Student> inflateAndParse(FileChannel ch, long offset, int compressedLength, int rawLength,
+                                                 int rowCount, int expectedCrc) throws IOException {
+        ByteBuffer compressed = readAt(ch, offset, compressedLength);
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed.array(), 0, compressedLength);
+            int len = 0;
+            while (len < rawLength) {
+                int n = inflater.inflate(raw, len, rawLength - len);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                len += n;
+            }
+            if (len != rawLength) throw new IOException("Truncated block at offset " + offset);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block at offset " + offset, e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(raw, 0, rawLength);
+        if ((int) crc.getValue() != expectedCrc) throw new IOException("Checksum mismatch in block at offset " + offset);
+
+        // The CRC only covers the block, not its index entry: the row count is checked separately
+        List<Student> out = new ArrayList<>(Math.max(0, Math.min(rowCount, rawLength)));
+        new StudentCsvByteParser().parseRows(ByteBuffer.wrap(raw), 0, rawLength, out);
+        if (out.size() != rowCount) {
+            throw new IOException("Block at offset " + offset + " holds " + out.size() + " rows, index says " + rowCount);
+        }
+        return out;
+    }
+
+    // ------------------------- Helpers -------------------------
+    private static ByteBuffer readAt(FileChannel ch, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) throw new EOFException("Unexpected end of compressed roster");
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    private static <T> T await(Future<T> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a block");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package lab3.task6;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/*
+ * Lab 3 - Task 6 (extension): Allocation-free CSV and JSON writers
+ * ----------------------------------------------------------------
+ * Replacement for PrintWriter.printf in saveToCsv/saveToJson. Rows are encoded straight into
+ * one reusable byte block: ints are formatted by hand, names are UTF-8 encoded (and JSON-escaped)
+ * char by char, and full blocks go to the channel in one write. No Formatter, no boxing, no
+ * varargs arrays and no intermediate Strings per row. The output is byte-for-byte the same as
+ * the printf version (including the platform line separator). StudentCsvWriter and
+ * StudentJsonWriter add the two layouts.
+ */
+abstract class BlockTextWriter implements Closeable {
+    static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final WritableByteChannel out;
+    private final byte[] block;
+    private final ByteBuffer blockView;
+    private int pos;
+
+    protected BlockTextWriter(WritableByteChannel out, int blockSize) {
+        this.out = out;
+        this.block = new byte[blockSize];
+        this.blockView = ByteBuffer.wrap(block);
+    }
+
+    public abstract void write(Student s) throws IOException;
+
+    // Writes everything buffered so far; close() also finishes the document
+    public void flush() throws IOException {
+        blockView.clear().limit(pos);
+        while (blockView.hasRemaining()) out.write(blockView);
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    protected final void ensure(int bytes) throws IOException {
+        if (block.length - pos < bytes) flush();
+    }
+
+    protected final void putAscii(byte[] ascii) throws IOException {
+        ensure(ascii.length);
+        System.arraycopy(ascii, 0, block, pos, ascii.length);
+        pos += ascii.length;
+    }
+
+    protected final void putByte(char c) throws IOException {
+        ensure(1);
+        block[pos++] = (byte) c;
+    }
+
+    protected final void newLine() throws IOException { putAscii(LINE_SEPARATOR); }
+
+    // Decimal formatting without Integer.toString: digits are written backwards into place
+    protected final void putInt(int v) throws IOException {
+        ensure(11);
+        if (v == Integer.MIN_VALUE) {
+            putAscii("-2147483648".getBytes());
+            return;
+        }
+        if (v < 0) {
+            block[pos++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (int t = v; t >= 10; t /= 10) digits++;
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            block[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        pos = end;
+    }
+
+    // UTF-8 encoding in place; with jsonEscape, quotes, backslashes and control characters are escaped
+    protected final void putString(String s, boolean jsonEscape) throws IOException {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            ensure(6);
+            if (c < 0x80) {
+                if (jsonEscape && (c == '"' || c == '\\')) {
+                    block[pos++] = '\\';
+                    block[pos++] = (byte) c;
+                } else if (jsonEscape && c < 0x20) {
+                    putControlEscape(c);
+                } else {
+                    block[pos++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                block[pos++] = (byte) (0xC0 | (c >> 6));
+                block[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    block[pos++] = (byte) (0xF0 | (cp >> 18));
+                    block[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    block[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    block[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    block[pos++] = '?'; // unpaired surrogate, same replacement as String.getBytes
+                }
+            } else {
+                block[pos++] = (byte) (0xE0 | (c >> 12));
+                block[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                block[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void putControlEscape(char c) {
+        block[pos++] = '\\';
+        switch (c) {
+            case '\n': block[pos++] = 'n'; return;
+            case '\r': block[pos++] = 'r'; return;
+            case '\t': block[pos++] = 't'; return;
+            case '\b': block[pos++] = 'b'; return;
+            case '\f': block[pos++] = 'f'; return;
+            default:
+                block[pos++] = 'u';
+                block[pos++] = '0';
+                block[pos++] = '0';
+                block[pos++] = HEX[c >> 4];
+                block[pos++] = HEX[c & 0xF];
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6 (extension): Bulk operation result
+ * -------------------------------------------------
+ * Outcome of StudentRegistry.addAll/removeAll: a count plus the matNos that were refused
+ */
+class BulkResult {
+    private static final int[] NONE = new int[0];
+
+    private final int applied;
+    private final int[] duplicates;
+    private final int[] overflow;
+    private final int[] notFound;
+
+    BulkResult(int applied, int[] duplicates, int[] overflow, int[] notFound) {
+        this.applied = applied;
+        this.duplicates = duplicates.length == 0 ? NONE : duplicates;
+        this.overflow = overflow.length == 0 ? NONE : overflow;
+        this.notFound = notFound.length == 0 ? NONE : notFound;
+    }
+
+    public int getApplied() { return applied; }           // students added (addAll) or removed (removeAll)
+    public int[] getDuplicates() { return duplicates.clone(); }
+    public int[] getOverflow() { return overflow.clone(); } // not added because the registry was full
+    public int[] getNotFound() { return notFound.clone(); }
+    public int getDuplicateCount() { return duplicates.length; }
+    public int getOverflowCount() { return overflow.length; }
+    public int getNotFoundCount() { return notFound.length; }
+
+    @Override
+    public String toString() {
+        return "applied=" + applied + ", duplicates=" + duplicates.length + ", overflow=" + overflow.length
+                + ", notFound=" + notFound.length;
+    }
+}
@@ -0,0 +1,10 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6 (extension): Columnar row visitor
+ * ------------------------------------------------
+ * Receives the matching rows of a scan; columns that were not requested are 0 / null
+ */
+interface ColumnRowVisitor {
+    void visit(int matNo, int birthYear, String firstName, String lastName);
+}
@@ -0,0 +1,31 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6 (extension): Columnar scan statistics
+ * ----------------------------------------------------
+ * Outcome of ColumnarStudentFile.scan()/count(): matching rows and how each block was handled.
+ */
+class ColumnScanStats {
+    private final int blocksScanned;
+    private final int blocksSkipped;
+    private final int blocksFromZoneMap;
+    private final long rowsMatched;
+
+    ColumnScanStats(int blocksScanned, int blocksSkipped, int blocksFromZoneMap, long rowsMatched) {
+        this.blocksScanned = blocksScanned;
+        this.blocksSkipped = blocksSkipped;
+        this.blocksFromZoneMap = blocksFromZoneMap;
+        this.rowsMatched = rowsMatched;
+    }
+
+    public int getBlocksScanned() { return blocksScanned; }
+    public int getBlocksSkipped() { return blocksSkipped; }
+    public int getBlocksFromZoneMap() { return blocksFromZoneMap; } // counted without decoding (count() only)
+    public long getRowsMatched() { return rowsMatched; }
+
+    @Override
+    public String toString() {
+        return "rows=" + rowsMatched + ", blocks scanned=" + blocksScanned + ", skipped=" + blocksSkipped
+                + ", from zone map=" + blocksFromZoneMap;
+    }
+}
@@ -0,0 +1,223 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Memory-mapped columnar file
+ * -------------------------------------------------------
+ * Reader for the format written by ColumnarStudentFormat. scan() and count() consult the
+ * zone map of each block first and decode only the blocks and columns they need.
+ */
+class ColumnarStudentFile implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int rowCount;
+    private final int rowsPerBlock;
+    private final int blockCount;
+    private final int dictionarySize;
+    private final long dictionaryOffset;
+    private final long indexOffset;
+    private String[] dictionary; // decoded on the first scan that needs names
+
+    private ColumnarStudentFile(FileChannel channel, MappedByteBuffer data, int rowCount, int rowsPerBlock,
+                                int blockCount, int dictionarySize, long dictionaryOffset, long indexOffset) {
+        this.channel = channel;
+        this.data = data;
+        this.rowCount = rowCount;
+        this.rowsPerBlock = rowsPerBlock;
+        this.blockCount = blockCount;
+        this.dictionarySize = dictionarySize;
+        this.dictionaryOffset = dictionaryOffset;
+        this.indexOffset = indexOffset;
+    }
+
+    public static ColumnarStudentFile open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size < ColumnarStudentFormat.HEADER_SIZE) throw new IOException("Truncated columnar file header");
+            if (size > Integer.MAX_VALUE) throw new IOException("Columnar file exceeds 2 GB");
+            MappedByteBuffer data = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (data.getInt(0) != ColumnarStudentFormat.MAGIC) throw new IOException("Not a columnar student file");
+            int version = data.getInt(4);
+            if (version != ColumnarStudentFormat.VERSION) throw new IOException("Unsupported columnar file version: " + version);
+            int n = data.getInt(8);
+            int rowsPerBlock = data.getInt(12);
+            int blockCount = data.getInt(16);
+            int dictionarySize = data.getInt(20);
+            long dictionaryOffset = data.getLong(24);
+            long indexOffset = data.getLong(32);
+            if (n < 0 || rowsPerBlock <= 0 || blockCount < 0 || dictionarySize < 0 || dictionaryOffset > indexOffset
+                    || indexOffset + (long) blockCount * ColumnarStudentFormat.INDEX_ENTRY_SIZE != size) {
+                throw new IOException("Corrupt columnar file header");
+            }
+            return new ColumnarStudentFile(ch, data, n, rowsPerBlock, blockCount, dictionarySize, dictionaryOffset, indexOffset);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public int size() { return rowCount; }
+    public int getBlockCount() { return blockCount; }
+
+    // Visits the rows with matNo in [matFrom, matTo] and birthYear in [yearFrom, yearTo] (inclusive), in file order.
+    // 'columns' selects what is decoded for the visitor (ColumnarStudentFormat.MATRICULATION_NUMBER, ...).
+    public ColumnScanStats scan(int matFrom, int matTo, int yearFrom, int yearTo, int columns, ColumnRowVisitor visitor) {
+        return run(matFrom, matTo, yearFrom, yearTo, columns, visitor);
+    }
+
+    public ColumnScanStats scanBirthYears(int yearFrom, int yearTo, int columns, ColumnRowVisitor visitor) {
+        return run(Integer.MIN_VALUE, Integer.MAX_VALUE, yearFrom, yearTo, columns, visitor);
+    }
+
+    // Counting needs no output columns: blocks inside both ranges are counted from the zone map alone
+    public ColumnScanStats count(int matFrom, int matTo, int yearFrom, int yearTo) {
+        return run(matFrom, matTo, yearFrom, yearTo, 0, null);
+    }
+
+    // Full decode in file order
+    public List<Student> readAll() {
+        List<Student> res = new ArrayList<>(rowCount);
+        run(Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, ColumnarStudentFormat.ALL_COLUMNS,
+                (mat, year, first, last) -> {
+                    try {
+                        res.add(new Student(mat, first, last, year));
+                    } catch (InvalidMatriculationNumberException e) {
+                        throw new IllegalStateException("Corrupt record in columnar file", e);
+                    }
+                });
+        return res;
+    }
+
+    // Mapped region stays readable until garbage-collected; closing releases the file handle
+    @Override
+    public void close() throws IOException { channel.close(); }
+
+    // ------------------------- Internals -------------------------
+    private ColumnScanStats run(int matFrom, int matTo, int yearFrom, int yearTo, int columns, ColumnRowVisitor visitor) {
+        boolean wantMat = (columns & ColumnarStudentFormat.MATRICULATION_NUMBER) != 0;
+        boolean wantYear = (columns & ColumnarStudentFormat.BIRTH_YEAR) != 0;
+        boolean wantNames = (columns & ColumnarStudentFormat.NAMES) != 0;
+        String[] names = wantNames ? dictionary() : null;
+        int[] mats = new int[rowsPerBlock];
+        int[] years = new int[rowsPerBlock];
+        int[] nameIds = new int[rowsPerBlock * 2];
+        ByteBuffer view = data.duplicate();
+
+        int scanned = 0;
+        int skipped = 0;
+        int fromZoneMap = 0;
+        long matched = 0;
+        for (int b = 0; b < blockCount; b++) {
+            int entry = (int) (indexOffset + (long) b * ColumnarStudentFormat.INDEX_ENTRY_SIZE);
+            int rows = data.getInt(entry);
+            int minMat = data.getInt(entry + 4), maxMat = data.getInt(entry + 8);
+            int minYear = data.getInt(entry + 12), maxYear = data.getInt(entry + 16);
+            if (maxMat < matFrom || minMat > matTo || maxYear < yearFrom || minYear > yearTo) {
+                skipped++;
+                continue;
+            }
+            boolean matInside = minMat >= matFrom && maxMat <= matTo;
+            boolean yearInside = minYear >= yearFrom && maxYear <= yearTo;
+            if (visitor == null && matInside && yearInside) {
+                fromZoneMap++;
+                matched += rows;
+                continue;
+            }
+            scanned++;
+
+            // Predicate columns are decoded when the zone map alone cannot decide
+            boolean decodeMat = wantMat || !matInside;
+            boolean decodeYear = wantYear || !yearInside;
+            if (decodeMat) decodeMatColumn(view, entry + 20, rows, mats);
+            if (decodeYear) decodeYearColumn(view, entry + 32, rows, years);
+            if (wantNames) decodeNameColumn(view, entry + 44, rows, nameIds);
+
+            for (int i = 0; i < rows; i++) {
+                if (!matInside && (mats[i] < matFrom || mats[i] > matTo)) continue;
+                if (!yearInside && (years[i] < yearFrom || years[i] > yearTo)) continue;
+                matched++;
+                if (visitor != null) {
+                    visitor.visit(wantMat ? mats[i] : 0, wantYear ? years[i] : 0,
+                            wantNames ? names[nameIds[2 * i]] : null, wantNames ? names[nameIds[2 * i + 1]] : null);
+                }
+            }
+        }
+        return new ColumnScanStats(scanned, skipped, fromZoneMap, matched);
+    }
+
+    private void decodeMatColumn(ByteBuffer view, int ref, int rows, int[] out) {
+        position(view, ref);
+        int prev = 0;
+        for (int i = 0; i < rows; i++) {
+            prev += ColumnarStudentFormat.unzigzag(readVarint(view));
+            out[i] = prev;
+        }
+    }
+
+    private void decodeYearColumn(ByteBuffer view, int ref, int rows, int[] out) {
+        position(view, ref);
+        int prev = 0;
+        for (int i = 0; i < rows; ) {
+            prev += ColumnarStudentFormat.unzigzag(readVarint(view));
+            int run = readVarint(view);
+            if (run <= 0 || i + run > rows) throw new IllegalStateException("Corrupt birthYear run in columnar file");
+            Arrays.fill(out, i, i + run, prev);
+            i += run;
+        }
+    }
+
+    private void decodeNameColumn(ByteBuffer view, int ref, int rows, int[] out) {
+        position(view, ref);
+        for (int i = 0; i < 2 * rows; i++) {
+            int id = readVarint(view);
+            if (id < 0 || id >= dictionarySize) throw new IllegalStateException("Corrupt name id in columnar file");
+            out[i] = id;
+        }
+    }
+
+    // Positions 'view' at the column segment described by the (long offset, int length) pair at 'ref'
+    private void position(ByteBuffer view, int ref) {
+        long offset = data.getLong(ref);
+        int length = data.getInt(ref + 8);
+        if (offset < ColumnarStudentFormat.HEADER_SIZE || offset + length > dictionaryOffset) {
+            throw new IllegalStateException("Corrupt column offset in columnar file");
+        }
+        view.limit((int) (offset + length)).position((int) offset);
+    }
+
+    private static int readVarint(ByteBuffer view) {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = view.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IllegalStateException("Corrupt varint in columnar file");
+    }
+
+    private synchronized String[] dictionary() {
+        if (dictionary == null) {
+            String[] names = new String[dictionarySize];
+            int pos = (int) dictionaryOffset;
+            for (int i = 0; i < dictionarySize; i++) {
+                int len = data.getShort(pos) & 0xFFFF;
+                byte[] bytes = new byte[len];
+                ByteBuffer view = data.duplicate();
+                view.position(pos + 2);
+                view.get(bytes);
+                names[i] = new String(bytes, StandardCharsets.UTF_8);
+                pos += 2 + len;
+            }
+            dictionary = names;
+        }
+        return dictionary;
+    }
+}
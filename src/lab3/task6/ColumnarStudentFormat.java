@@ -0,0 +1,186 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Columnar analytics file with zone maps
+ * ------------------------------------------------------------------
+ * For reports such as "students born between 1995 and 2000" that should not parse every row.
+ * Rows are cut into blocks; inside a block each column is stored separately and encoded for
+ * its shape:
+ *   matColumn    zigzag varint deltas to the previous matriculationNumber (ascending ids -> 1 byte)
+ *   yearColumn   run-length encoded: (zigzag varint delta to previous run value, varint run length)
+ *   nameColumn   varint dictionary ids, firstName then lastName per row
+ * A zone map (min/max matNo and birthYear) per block lets scan() skip blocks that cannot match,
+ * count rows of blocks that match completely without decoding them, and decode only the columns
+ * the caller asked for.
+ *
+ * Layout (big-endian, offsets stored in the header):
+ *   header      magic "STUC", version, rowCount, rowsPerBlock, blockCount, dictionarySize,
+ *               long dictionaryOffset, long indexOffset
+ *   blocks      per block: matColumn, yearColumn, nameColumn
+ *   dictionary  per distinct name: u16 length + UTF-8
+ *   index       per block: int rowCount, minMat, maxMat, minYear, maxYear,
+ *               then (long offset, int length) for matColumn, yearColumn, nameColumn
+ */
+final class ColumnarStudentFormat {
+    static final int MAGIC = 0x53545543; // "STUC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 40;
+    static final int INDEX_ENTRY_SIZE = 56;
+    static final int DEFAULT_ROWS_PER_BLOCK = 16 * 1024;
+
+    // Column selection for ColumnarStudentFile.scan
+    static final int MATRICULATION_NUMBER = 1;
+    static final int BIRTH_YEAR = 2;
+    static final int NAMES = 4;
+    static final int ALL_COLUMNS = MATRICULATION_NUMBER | BIRTH_YEAR | NAMES;
+
+    private ColumnarStudentFormat() {}
+
+    public static void write(List<Student> students, Path file) throws IOException {
+        write(students, file, DEFAULT_ROWS_PER_BLOCK);
+    }
+
+    public static void write(List<Student> students, Path file, int rowsPerBlock) throws IOException {
+        if (rowsPerBlock <= 0) throw new IllegalArgumentException("rowsPerBlock must be positive");
+        int n = students.size();
+        int blockCount = (n + rowsPerBlock - 1) / rowsPerBlock;
+
+        // One dictionary for first and last names; ids in first-seen order
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (Student s : students) {
+            addName(ids, dictionary, s.getFirstName());
+            addName(ids, dictionary, s.getLastName());
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_SIZE);
+        ByteSink column = new ByteSink(rowsPerBlock * 2);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.position(HEADER_SIZE);
+            for (int b = 0; b < blockCount; b++) {
+                List<Student> rows = students.subList(b * rowsPerBlock, Math.min(n, (b + 1) * rowsPerBlock));
+                int minMat = Integer.MAX_VALUE, maxMat = Integer.MIN_VALUE;
+                int minYear = Integer.MAX_VALUE, maxYear = Integer.MIN_VALUE;
+                for (Student s : rows) {
+                    minMat = Math.min(minMat, s.getMatriculationNumber());
+                    maxMat = Math.max(maxMat, s.getMatriculationNumber());
+                    minYear = Math.min(minYear, s.getBirthYear());
+                    maxYear = Math.max(maxYear, s.getBirthYear());
+                }
+                index.putInt(rows.size()).putInt(minMat).putInt(maxMat).putInt(minYear).putInt(maxYear);
+
+                column.reset();
+                int prev = 0;
+                for (Student s : rows) {
+                    column.putVarint(zigzag(s.getMatriculationNumber() - prev));
+                    prev = s.getMatriculationNumber();
+                }
+                index.putLong(ch.position()).putInt(column.length());
+                column.writeTo(ch);
+
+                column.reset();
+                prev = 0;
+                for (int i = 0; i < rows.size(); ) {
+                    int year = rows.get(i).getBirthYear();
+                    int run = 1;
+                    while (i + run < rows.size() && rows.get(i + run).getBirthYear() == year) run++;
+                    column.putVarint(zigzag(year - prev));
+                    column.putVarint(run);
+                    prev = year;
+                    i += run;
+                }
+                index.putLong(ch.position()).putInt(column.length());
+                column.writeTo(ch);
+
+                column.reset();
+                for (Student s : rows) {
+                    column.putVarint(ids.get(s.getFirstName()));
+                    column.putVarint(ids.get(s.getLastName()));
+                }
+                index.putLong(ch.position()).putInt(column.length());
+                column.writeTo(ch);
+            }
+
+            long dictionaryOffset = ch.position();
+            column.reset();
+            for (String name : dictionary) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > StudentBinaryFormat.MAX_NAME_BYTES) throw new IOException("Name too long for columnar format: " + bytes.length + " bytes");
+                column.putShort(bytes.length);
+                column.put(bytes);
+            }
+            column.writeTo(ch);
+
+            long indexOffset = ch.position();
+            index.flip();
+            while (index.hasRemaining()) ch.write(index);
+
+            // Header last: it is the only part that needs the final offsets
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(rowsPerBlock).putInt(blockCount).putInt(dictionary.size());
+            header.putLong(dictionaryOffset).putLong(indexOffset);
+            header.flip();
+            while (header.hasRemaining()) ch.write(header, header.position());
+            ch.force(true);
+        }
+    }
+
+    private static void addName(Map<String, Integer> ids, List<String> dictionary, String name) {
+        if (!ids.containsKey(name)) {
+            ids.put(name, dictionary.size());
+            dictionary.add(name);
+        }
+    }
+
+    static int zigzag(int v) { return (v << 1) ^ (v >> 31); }
+    static int unzigzag(int v) { return (v >>> 1) ^ -(v & 1); }
+
+    // Growable byte array for one column segment; reused across blocks
+    private static class ByteSink {
+        private byte[] bytes;
+        private int pos;
+
+        ByteSink(int capacity) { bytes = new byte[Math.max(64, capacity)]; }
+
+        void reset() { pos = 0; }
+        int length() { return pos; }
+
+        void putVarint(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                bytes[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            bytes[pos++] = (byte) v;
+        }
+
+        void putShort(int v) {
+            ensure(2);
+            bytes[pos++] = (byte) (v >>> 8);
+            bytes[pos++] = (byte) v;
+        }
+
+        void put(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, pos, b.length);
+            pos += b.length;
+        }
+
+        void writeTo(FileChannel ch) throws IOException {
+            ByteBuffer buf = ByteBuffer.wrap(bytes, 0, pos);
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+
+        private void ensure(int n) {
+            if (bytes.length - pos < n) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, pos + n));
+        }
+    }
+}
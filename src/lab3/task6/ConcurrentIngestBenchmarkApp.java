@@ -0,0 +1,145 @@
+package lab3.task6;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Lab 3 - Task 6 (extension): Ingest throughput benchmark
+ * -------------------------------------------------------
+ * Adds the same pre-built students from 1, 2, 4, ... threads into the synchronized
+ * StudentRegistry and into ConcurrentStudentRegistry, and prints adds per second. Every thread
+ * also re-adds a share of numbers owned by other threads, so duplicate detection is exercised
+ * under contention. After each run the result is checked: the registry must hold every distinct
+ * number exactly once, and in the capacity run exactly maxCapacity students must be accepted.
+ * A single-threaded run over growing stripe counts checks that the average probe length of the
+ * per-stripe hash tables stays flat (stripe choice must not cluster keys inside a stripe).
+ *
+ * Usage: ConcurrentIngestBenchmarkApp [students] [maxThreads]
+ */
+public class ConcurrentIngestBenchmarkApp {
+    private static final int ROUNDS = 3;
+
+    // Common shape of both registries for the benchmark loop
+    private interface Target {
+        boolean add(Student s) throws StudentRegistryFullException;
+        int size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+        Logger.getLogger("").setLevel(Level.OFF); // measure the registries, not the console
+
+        Student[] students = new Student[count];
+        for (int i = 0; i < count; i++) students[i] = Student.ofValidated(1001 + i, "First", "Last", 1990 + i % 15);
+
+        System.out.println("=== Ingest benchmark: " + count + " students, " + Runtime.getRuntime().availableProcessors() + " cores ===");
+        System.out.printf("%-8s %22s %22s%n", "threads", "StudentRegistry", "ConcurrentRegistry");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double plain = 0;
+            double striped = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                StudentRegistry registry = new StudentRegistry(count + 1); // never full: duplicates of a full registry would throw
+                plain = Math.max(plain, run(students, threads, new Target() {
+                    @Override public boolean add(Student s) throws StudentRegistryFullException { return registry.addStudent(s); }
+                    @Override public int size() { return registry.size(); }
+                }, count));
+                ConcurrentStudentRegistry concurrent = new ConcurrentStudentRegistry(count + 1);
+                striped = Math.max(striped, run(students, threads, new Target() {
+                    @Override public boolean add(Student s) throws StudentRegistryFullException { return concurrent.addStudent(s); }
+                    @Override public int size() { return concurrent.size(); }
+                }, count));
+            }
+            System.out.printf("%-8d %16.0f ops/s %16.0f ops/s%n", threads, plain, striped);
+        }
+
+        // Stripe tables must stay as well spread as one big table: probe lengths flat in the stripe count
+        System.out.printf("%n%-8s %14s %12s%n", "stripes", "avg probes", "add+get ms");
+        double baseline = 0;
+        boolean flat = true;
+        for (int stripeCount = 1; stripeCount <= 1024; stripeCount *= 4) {
+            ConcurrentStudentRegistry reg = new ConcurrentStudentRegistry(count, stripeCount);
+            long start = System.nanoTime();
+            for (Student s : students) reg.addStudent(s);
+            for (Student s : students) if (reg.findByMatric(s.getMatriculationNumber()) != s) throw new IllegalStateException("Lookup failed");
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            double probes = reg.averageProbeLength();
+            if (stripeCount == 1) baseline = probes;
+            else if (probes > baseline * 1.5) flat = false;
+            System.out.printf("%-8d %14.2f %12d%n", stripeCount, probes, ms);
+        }
+        System.out.println("Probe lengths across stripe counts: " + (flat ? "flat" : "DEGRADED"));
+
+        // Exact capacity: many threads race for the last free slots
+        int capacity = count / 3;
+        ConcurrentStudentRegistry limited = new ConcurrentStudentRegistry(capacity);
+        AtomicInteger rejected = new AtomicInteger();
+        runThreads(students, maxThreads, s -> {
+            try {
+                limited.addStudent(s);
+            } catch (StudentRegistryFullException e) {
+                rejected.incrementAndGet();
+            }
+        });
+        int distinctRejected = count - capacity;
+        System.out.println("Capacity " + capacity + ": size=" + limited.size() + ", list=" + limited.list().size()
+                + (limited.size() == capacity && limited.list().size() == capacity && rejected.get() >= distinctRejected ? " (exact)" : " (MISMATCH)"));
+    }
+
+    // Returns adds per second (duplicate attempts included); throws if the registry content is wrong
+    private static double run(Student[] students, int threads, Target target, int expectedSize) throws Exception {
+        long start = System.nanoTime();
+        AtomicInteger accepted = new AtomicInteger();
+        long attempts = runThreads(students, threads, s -> {
+            try {
+                if (target.add(s)) accepted.incrementAndGet();
+            } catch (StudentRegistryFullException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (accepted.get() != expectedSize || target.size() != expectedSize) {
+            throw new IllegalStateException("Expected " + expectedSize + " students, accepted " + accepted.get() + ", size " + target.size());
+        }
+        return attempts / seconds;
+    }
+
+    private interface Action {
+        void accept(Student s);
+    }
+
+    // Thread t adds the t-th slice, then every 8th student of the next slice (duplicates); returns total attempts
+    private static long runThreads(Student[] students, int threads, Action action) throws Exception {
+        int n = students.length;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int from = (int) ((long) n * t / threads);
+                int to = (int) ((long) n * (t + 1) / threads);
+                int dupFrom = to % n;
+                int dupTo = Math.min(n, dupFrom + (to - from));
+                results.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    long attempts = 0;
+                    for (int i = from; i < to; i++, attempts++) action.accept(students[i]);
+                    for (int i = dupFrom; i < dupTo; i += 8, attempts++) action.accept(students[i]);
+                    return attempts;
+                }));
+            }
+            ready.await();
+            go.countDown();
+            long total = 0;
+            for (Future<Long> f : results) total += f.get();
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
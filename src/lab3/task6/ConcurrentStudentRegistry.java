@@ -0,0 +1,219 @@
+package lab3.task6;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Lab 3 - Task 6 (extension): Multi-writer registry
+ * -------------------------------------------------
+ * Thread-safe variant of StudentRegistry for parallel ingest. State is split into lock stripes
+ * by matriculation number, so writers with different numbers rarely contend; each stripe holds
+ * its students in arrays indexed by a MatricSlotIndex.
+ *
+ * - Duplicate detection: a matNo always maps to the same stripe, and the check and the insert
+ *   happen under that stripe's lock, so exactly one of several concurrent adds of a number wins.
+ * - Capacity: a slot is reserved with a compare-and-set on one shared counter before the insert,
+ *   and only by adds that will succeed. The counter never goes above maxCapacity, so
+ *   StudentRegistryFullException fires at exactly maxCapacity, however many threads add.
+ * - Order: every student gets a global sequence number; list() and snapshot() lock all stripes
+ *   (always in the same order) and return a consistent view in insertion order.
+ */
+class ConcurrentStudentRegistry {
+    private static final Logger LOG = Logger.getLogger(ConcurrentStudentRegistry.class.getName());
+    private static final String CLASS = ConcurrentStudentRegistry.class.getName();
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final MatricSlotIndex index = new MatricSlotIndex();
+        Student[] students = new Student[16];
+        long[] sequence = new long[16];
+        int size;
+
+        void add(Student s, long seq) {
+            if (size == students.length) {
+                students = Arrays.copyOf(students, size * 2);
+                sequence = Arrays.copyOf(sequence, size * 2);
+            }
+            index.put(s.getMatriculationNumber(), size);
+            students[size] = s;
+            sequence[size] = seq;
+            size++;
+        }
+
+        // Swap-remove: the last entry fills the gap; global order is kept by the sequence numbers
+        Student remove(int matNo) {
+            int slot = index.remove(matNo);
+            if (slot == MatricSlotIndex.MISSING) return null;
+            Student removed = students[slot];
+            int last = --size;
+            if (slot != last) {
+                students[slot] = students[last];
+                sequence[slot] = sequence[last];
+                index.put(students[slot].getMatriculationNumber(), slot);
+            }
+            students[last] = null;
+            return removed;
+        }
+    }
+
+    private final int maxCapacity;
+    private final Stripe[] stripes;
+    private final int stripeShift; // stripe = high bits of spread(matNo); 32 when there is one stripe
+    private final AtomicInteger reserved = new AtomicInteger(); // students held or being inserted
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public ConcurrentStudentRegistry(int maxCapacity) {
+        this(maxCapacity, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ConcurrentStudentRegistry(int maxCapacity, int stripeCount) {
+        if (stripeCount <= 0) throw new IllegalArgumentException("stripeCount must be positive");
+        this.maxCapacity = maxCapacity;
+        int n = Integer.highestOneBit(stripeCount - 1) << 1; // next power of two
+        if (n <= 0) n = 1;
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) stripes[i] = new Stripe();
+        stripeShift = 32 - Integer.numberOfTrailingZeros(n);
+    }
+
+    // Same contract as StudentRegistry.addStudent: false for a duplicate, exception when full
+    public boolean addStudent(Student s) throws StudentRegistryFullException {
+        int matNo = s.getMatriculationNumber();
+        Stripe stripe = stripeFor(matNo);
+        stripe.lock.lock();
+        try {
+            if (stripe.index.get(matNo) != MatricSlotIndex.MISSING) {
+                // Full wins over duplicate, like in StudentRegistry
+                if (reserved.get() >= maxCapacity) throw full();
+                LOG.logp(Level.WARNING, CLASS, "addStudent", () -> "Duplicate matriculation number: " + matNo);
+                return false;
+            }
+            int c;
+            do {
+                c = reserved.get();
+                if (c >= maxCapacity) throw full();
+            } while (!reserved.compareAndSet(c, c + 1));
+            stripe.add(s, nextSequence.getAndIncrement());
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (LOG.isLoggable(Level.INFO)) LOG.logp(Level.INFO, CLASS, "addStudent", "Added student: {0}", s);
+        return true;
+    }
+
+    public int getMaxCapacity() { return maxCapacity; }
+    public int size() { return reserved.get(); }
+
+    public Student getOrNull(int matNo) {
+        Stripe stripe = stripeFor(matNo);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.index.get(matNo);
+            return slot == MatricSlotIndex.MISSING ? null : stripe.students[slot];
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public Optional<Student> find(int matNo) { return Optional.ofNullable(getOrNull(matNo)); }
+
+    public Student findByMatric(int matNo) throws StudentNotFoundException {
+        Student s = getOrNull(matNo);
+        if (s == null) throw new StudentNotFoundException(matNo);
+        return s;
+    }
+
+    public boolean removeIfPresent(int matNo) {
+        Stripe stripe = stripeFor(matNo);
+        Student removed;
+        stripe.lock.lock();
+        try {
+            removed = stripe.remove(matNo);
+            if (removed == null) return false;
+            reserved.decrementAndGet();
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (LOG.isLoggable(Level.INFO)) LOG.logp(Level.INFO, CLASS, "removeByMatric", "Removed student: {0}", removed);
+        return true;
+    }
+
+    public boolean removeByMatric(int matNo) throws StudentNotFoundException {
+        if (!removeIfPresent(matNo)) throw new StudentNotFoundException(matNo);
+        return true;
+    }
+
+    // Consistent copy in insertion order; briefly blocks all writers
+    public List<Student> list() {
+        long[] keys;
+        Student[] all;
+        int n = 0;
+        for (Stripe s : stripes) s.lock.lock();
+        try {
+            int total = 0;
+            for (Stripe s : stripes) total += s.size;
+            keys = new long[total];
+            all = new Student[total];
+            for (Stripe s : stripes) {
+                System.arraycopy(s.students, 0, all, n, s.size);
+                System.arraycopy(s.sequence, 0, keys, n, s.size);
+                n += s.size;
+            }
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) stripes[i].lock.unlock();
+        }
+        // Sort positions by sequence outside the locks: (sequence, position) packed into one long
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(1, n));
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) order[i] = (keys[i] << bits) | i;
+        Arrays.sort(order);
+        List<Student> res = new ArrayList<>(n);
+        long mask = (1L << bits) - 1;
+        for (long o : order) res.add(all[(int) (o & mask)]);
+        return res;
+    }
+
+    public List<Student> snapshot() { return Collections.unmodifiableList(list()); }
+
+    // Mean probe length over all stripe tables; should not grow with the stripe count
+    public double averageProbeLength() {
+        double weighted = 0;
+        int total = 0;
+        for (Stripe s : stripes) {
+            s.lock.lock();
+            try {
+                weighted += s.index.averageProbeLength() * s.index.size();
+                total += s.index.size();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return total == 0 ? 0.0 : weighted / total;
+    }
+
+    // The stripe comes from the high bits of a hash unrelated to MatricSlotIndex's. Taking it from
+    // the low bits of the same hash would give all keys of a stripe the same home-slot bits, so
+    // each stripe table would use only 1/stripes of its cells and probe in long clusters.
+    private Stripe stripeFor(int matNo) {
+        return stripeShift == 32 ? stripes[0] : stripes[spread(matNo) >>> stripeShift];
+    }
+
+    // MurmurHash3 finalizer
+    private static int spread(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private StudentRegistryFullException full() {
+        LOG.logp(Level.WARNING, CLASS, "addStudent", "Registry full");
+        return new StudentRegistryFullException(maxCapacity);
+    }
+}
@@ -0,0 +1,57 @@
+package lab3.task6;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Lab 3 - Task 6 (extension): Parallel CSV import report
+ * ------------------------------------------------------
+ * Result of ParallelCsvImporter.importInto: counters per chunk (in file order) and their totals.
+ */
+class CsvImportReport {
+    // Per-chunk counters; 'rejected' are malformed rows, 'duplicates'/'overflow' were refused by the registry
+    static class ChunkStats {
+        final int index;
+        final long offset;
+        final long length;
+        long rowsParsed;
+        long rowsRejected;
+        long added;
+        long duplicates;
+        long overflow;
+
+        ChunkStats(int index, long offset, long length) {
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("chunk %d [offset=%d, bytes=%d]: parsed=%d, rejected=%d, added=%d, duplicates=%d, overflow=%d",
+                    index, offset, length, rowsParsed, rowsRejected, added, duplicates, overflow);
+        }
+    }
+
+    private final List<ChunkStats> chunks = new ArrayList<>();
+
+    void addChunk(ChunkStats c) { chunks.add(c); }
+
+    public List<ChunkStats> getChunks() { return Collections.unmodifiableList(chunks); }
+
+    public long getRowsParsed() { long n = 0; for (ChunkStats c : chunks) n += c.rowsParsed; return n; }
+    public long getRowsRejected() { long n = 0; for (ChunkStats c : chunks) n += c.rowsRejected; return n; }
+    public long getAdded() { long n = 0; for (ChunkStats c : chunks) n += c.added; return n; }
+    public long getDuplicates() { long n = 0; for (ChunkStats c : chunks) n += c.duplicates; return n; }
+    public long getOverflow() { long n = 0; for (ChunkStats c : chunks) n += c.overflow; return n; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("CSV import: %d chunks, parsed=%d, rejected=%d, added=%d, duplicates=%d, overflow=%d%n",
+                chunks.size(), getRowsParsed(), getRowsRejected(), getAdded(), getDuplicates(), getOverflow()));
+        for (ChunkStats c : chunks) sb.append("  ").append(c).append(System.lineSeparator());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6: Persistence failure
+ * -----------------------------------
+ * Wraps the I/O error behind a failed save, load or recovery
+ */
+class DataPersistenceException extends StudentManagementException {
+    public DataPersistenceException(String message, Throwable cause) { super(message, cause); }
+}
@@ -0,0 +1,261 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Dirty tracking and incremental delta saves
+ * ----------------------------------------------------------------------
+ * Observes a StudentRegistry and remembers which matriculation numbers were added (upserts)
+ * or removed since the last save. saveDelta() writes only those records into a numbered segment
+ * file next to the base CSV ("students.csv.delta.000001", ...), so a save costs KBs instead of a
+ * full rewrite. loadMerged() reads the base CSV and applies the segments in order; compact()
+ * folds everything back into the base file and deletes the segments.
+ *
+ * The base CSV header carries one extra field, "DeltaGeneration=<n>": the highest segment
+ * number already folded into that base. Segments at or below it are skipped on load and new
+ * segments are numbered above it, so a crash between replacing the base and deleting the old
+ * segments cannot replay them over the newer base. CSV readers skip the header line, so the
+ * base stays readable by loadFromCsv and the importers.
+ *
+ * Segment layout (DataOutputStream): magic "STUD", version, upsert count,
+ *   per upsert: int matNo, int birthYear, UTF firstName, UTF lastName; removal count, int matNo each.
+ */
+class DeltaSegmentStore implements StudentObserver {
+    static final int MAGIC = 0x53545544; // "STUD"
+    static final int VERSION = 1;
+    private static final String SEGMENT_INFIX = ".delta.";
+    private static final String CSV_HEADER = "MatriculationNumber,FirstName,LastName,BirthYear";
+    private static final String GENERATION_FIELD = "DeltaGeneration=";
+
+    private final Path baseFile;
+    private final StudentDataManager io = new StudentDataManager();
+    private volatile StudentRegistry registry; // set by attach()
+
+    // Changes since the last save; disjoint (a matNo is either upserted or removed). Guarded by the registry.
+    private Map<Integer, Student> upserts = new LinkedHashMap<>();
+    private Set<Integer> removed = new LinkedHashSet<>();
+
+    public DeltaSegmentStore(Path baseFile) {
+        this.baseFile = baseFile;
+    }
+
+    // Starts tracking; changes made before attaching are not part of any delta
+    public void attach(StudentRegistry registry) {
+        this.registry = registry;
+        registry.addObserver(this);
+    }
+
+    @Override
+    public void onStudentAdded(Student s) {
+        removed.remove(s.getMatriculationNumber());
+        upserts.put(s.getMatriculationNumber(), s);
+    }
+
+    @Override
+    public void onStudentRemoved(Student s) {
+        // Removing something added since the last save still needs a removal: the base may hold an older record
+        upserts.remove(s.getMatriculationNumber());
+        removed.add(s.getMatriculationNumber());
+    }
+
+    // 0 until attach() is called (nothing is tracked yet)
+    public int getDirtyCount() {
+        StudentRegistry r = registry;
+        if (r == null) return 0;
+        synchronized (r) { return upserts.size() + removed.size(); }
+    }
+
+    // Writes the pending changes as the next segment; returns its path, or null if nothing changed.
+    // Both saves need attach() first (IllegalStateException otherwise).
+    public synchronized Path saveDelta() throws IOException {
+        Map<Integer, Student> up;
+        Set<Integer> rm;
+        synchronized (attached()) {
+            if (upserts.isEmpty() && removed.isEmpty()) return null;
+            up = upserts;
+            rm = removed;
+            upserts = new LinkedHashMap<>();
+            removed = new LinkedHashSet<>();
+        }
+        try {
+            int next = latestGeneration() + 1;
+            Path segment = baseFile.resolveSibling(baseFile.getFileName() + SEGMENT_INFIX + String.format("%06d", next));
+            Path tmp = segment.resolveSibling(segment.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(up.size());
+                for (Student s : up.values()) {
+                    out.writeInt(s.getMatriculationNumber());
+                    out.writeInt(s.getBirthYear());
+                    out.writeUTF(s.getFirstName());
+                    out.writeUTF(s.getLastName());
+                }
+                out.writeInt(rm.size());
+                for (int matNo : rm) out.writeInt(matNo);
+            }
+            Files.move(tmp, segment, StandardCopyOption.ATOMIC_MOVE);
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            restore(up, rm);
+            throw e;
+        }
+    }
+
+    // Full rewrite of the base file from the registry; pending changes and old segments become obsolete
+    public synchronized void saveFull() throws IOException {
+        List<Student> view;
+        Map<Integer, Student> up;
+        Set<Integer> rm;
+        StudentRegistry r = attached();
+        synchronized (r) {
+            view = r.snapshot();
+            up = upserts;
+            rm = removed;
+            upserts = new LinkedHashMap<>();
+            removed = new LinkedHashSet<>();
+        }
+        try {
+            writeBase(view, latestGeneration());
+        } catch (IOException | RuntimeException e) {
+            restore(up, rm);
+            throw e;
+        }
+    }
+
+    private StudentRegistry attached() {
+        StudentRegistry r = registry;
+        if (r == null) throw new IllegalStateException("Not attached to a registry; call attach() first");
+        return r;
+    }
+
+    // Base CSV with all segments applied in order
+    public synchronized List<Student> loadMerged() throws IOException {
+        LinkedHashMap<Integer, Student> merged = new LinkedHashMap<>();
+        if (Files.exists(baseFile)) {
+            try {
+                io.forEachFromCsv(baseFile.toString(), s -> merged.put(s.getMatriculationNumber(), s));
+            } catch (StudentManagementException e) {
+                throw new IOException("Failed to read base file " + baseFile, e);
+            }
+        }
+        int folded = baseGeneration();
+        for (Path segment : segments()) {
+            if (segmentNumber(segment) > folded) applySegment(segment, merged);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    // Folds all segments into the base file and deletes them
+    public synchronized void compact() throws IOException {
+        List<Path> folded = segments();
+        if (folded.isEmpty()) return;
+        writeBase(loadMerged(), segmentNumber(folded.get(folded.size() - 1)));
+    }
+
+    // ------------------------- Internals -------------------------
+    // Replaces the base with 'students', which already reflect all segments up to 'generation'.
+    // Segments are deleted only after the move; until then the header makes load skip them.
+    private void writeBase(List<Student> students, int generation) throws IOException {
+        Path tmp = baseFile.resolveSibling(baseFile.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] header = (CSV_HEADER + "," + GENERATION_FIELD + generation + "\n").getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer buf = ByteBuffer.wrap(header);
+            while (buf.hasRemaining()) ch.write(buf);
+            try (StudentCsvWriter out = new StudentCsvWriter(ch, false)) {
+                for (Student s : students) out.write(s);
+            }
+        }
+        Files.move(tmp, baseFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Path p : segments()) {
+            if (segmentNumber(p) <= generation) Files.deleteIfExists(p);
+        }
+    }
+
+    // Highest segment number in use: the last segment file, or the generation folded into the base
+    private int latestGeneration() throws IOException {
+        List<Path> existing = segments();
+        int last = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1));
+        return Math.max(last, baseGeneration());
+    }
+
+    // DeltaGeneration from the base header; 0 if there is no base or it has a plain CSV header
+    private int baseGeneration() throws IOException {
+        if (!Files.exists(baseFile)) return 0;
+        String header;
+        try (BufferedReader in = Files.newBufferedReader(baseFile, StandardCharsets.UTF_8)) {
+            header = in.readLine();
+        }
+        if (header == null) return 0;
+        int at = header.lastIndexOf(GENERATION_FIELD);
+        if (at < 0) return 0;
+        try {
+            return Integer.parseInt(header.substring(at + GENERATION_FIELD.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt base header in " + baseFile + ": " + header, e);
+        }
+    }
+
+    // Puts changes back after a failed write; newer changes win over the restored ones
+    private void restore(Map<Integer, Student> up, Set<Integer> rm) {
+        synchronized (registry) {
+            for (Map.Entry<Integer, Student> e : up.entrySet()) {
+                if (!upserts.containsKey(e.getKey()) && !removed.contains(e.getKey())) upserts.put(e.getKey(), e.getValue());
+            }
+            for (int matNo : rm) {
+                if (!upserts.containsKey(matNo)) removed.add(matNo);
+            }
+        }
+    }
+
+    private static void applySegment(Path segment, Map<Integer, Student> merged) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a delta segment: " + segment);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported delta segment version " + version + ": " + segment);
+            int upsertCount = in.readInt();
+            List<Student> up = new ArrayList<>(upsertCount);
+            for (int i = 0; i < upsertCount; i++) {
+                int matNo = in.readInt();
+                int birthYear = in.readInt();
+                String first = in.readUTF();
+                String last = in.readUTF();
+                try {
+                    up.add(new Student(matNo, first, last, birthYear));
+                } catch (InvalidMatriculationNumberException | IllegalArgumentException e) {
+                    throw new IOException("Invalid student in " + segment, e);
+                }
+            }
+            int removalCount = in.readInt();
+            for (int i = 0; i < removalCount; i++) merged.remove(in.readInt());
+            for (Student s : up) merged.put(s.getMatriculationNumber(), s);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        Path dir = baseFile.toAbsolutePath().getParent();
+        String prefix = baseFile.getFileName() + SEGMENT_INFIX;
+        List<Path> res = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path p : ds) {
+                String name = p.getFileName().toString();
+                if (name.length() > prefix.length() && name.substring(prefix.length()).chars().allMatch(Character::isDigit)) {
+                    res.add(p);
+                }
+            }
+        }
+        res.sort(Comparator.comparingInt(DeltaSegmentStore::segmentNumber));
+        return res;
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(name.lastIndexOf('.') + 1));
+    }
+}
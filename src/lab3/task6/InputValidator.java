@@ -0,0 +1,64 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6: Validation helpers
+ * ----------------------------------
+ * Name and matriculation-number checks, as exceptions (single records) or as result codes
+ * (bulk paths that must not pay for an exception per bad row).
+ */
+class InputValidator {
+    // Result codes for the exception-free bulk path (see StudentCsvReader)
+    static final int VALID = 0;
+    static final int NAME_EMPTY = 1;
+    static final int NAME_INVALID_CHARS = 2;
+    static final int MAT_OUT_OF_RANGE = 3;
+    static final int MALFORMED_ROW = 4;
+    static final int INVALID_NUMBER = 5;
+
+    private static final String[] REASONS = {
+            "Valid",
+            "Name cannot be empty",
+            "Name contains invalid characters",
+            "Matriculation number must be between 1001 and 999999",
+            "Invalid CSV format",
+            "Invalid number"
+    };
+
+    // Lookup table for the old NAME_REGEX "[a-zA-ZäöüÄÖÜß\\s-]+" (no Pattern compile per call)
+    private static final boolean[] NAME_CHARS = new boolean[256];
+    static {
+        for (char c = 'a'; c <= 'z'; c++) NAME_CHARS[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) NAME_CHARS[c] = true;
+        for (char c : "äöüÄÖÜß -\t\n\013\f\r".toCharArray()) NAME_CHARS[c] = true;
+    }
+
+    public static String reason(int code) { return REASONS[code]; }
+
+    public static int checkName(String name) {
+        if (name == null) return NAME_EMPTY;
+        boolean blank = true;
+        boolean invalid = false;
+        for (int i = 0, n = name.length(); i < n; i++) {
+            char c = name.charAt(i);
+            if (c > ' ') blank = false;
+            if (c >= NAME_CHARS.length || !NAME_CHARS[c]) invalid = true;
+        }
+        if (blank) return NAME_EMPTY; // same order as before: trim().isEmpty() wins over the character check
+        return invalid ? NAME_INVALID_CHARS : VALID;
+    }
+
+    public static int checkMatriculationNumber(int number) {
+        return number < 1001 || number > 999999 ? MAT_OUT_OF_RANGE : VALID;
+    }
+
+    public static void validateName(String name) {
+        int code = checkName(name);
+        if (code != VALID) throw new IllegalArgumentException(reason(code));
+    }
+
+    public static void validateMatriculationNumber(int number) throws InvalidMatriculationNumberException {
+        if (checkMatriculationNumber(number) != VALID) {
+            throw new InvalidMatriculationNumberException(reason(MAT_OUT_OF_RANGE));
+        }
+    }
+}
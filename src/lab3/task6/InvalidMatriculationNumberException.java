@@ -0,0 +1,10 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6: Invalid matriculation number
+ * --------------------------------------------
+ * Thrown by InputValidator for a matNo outside 1001..999999
+ */
+class InvalidMatriculationNumberException extends StudentManagementException {
+    public InvalidMatriculationNumberException(String message) { super(message); }
+}
@@ -0,0 +1,124 @@
+package lab3.task6;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Lab 3 - Task 6 (extension): Journal compaction stress check
+ * -----------------------------------------------------------
+ * Several writer threads add and remove students through a journaled StudentRegistry while
+ * another thread takes checkpoints (binary snapshot + StudentJournal.compactThrough) back to back.
+ * Writers use long names now and then, so the group-commit buffer fills up and the flusher
+ * starts writes of its own while a compaction is waiting. After the run the journal is closed,
+ * a fresh registry is recovered from snapshot + journal, and it must equal the live registry
+ * record for record. Runs once per durability window.
+ *
+ * Usage: JournalCompactionStressApp [secondsPerWindow] [writers]
+ */
+public class JournalCompactionStressApp {
+    private static final long[] WINDOWS_MILLIS = {0, 1, 5};
+    private static final int KEYS_PER_WRITER = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Logger.getLogger("").setLevel(Level.OFF); // per-record INFO lines would dominate the run
+
+        Path dir = Files.createTempDirectory("journal-stress");
+        boolean allOk = true;
+        System.out.println("=== Journal compaction stress: " + writers + " writers, " + seconds + " s per window ===");
+        for (long window : WINDOWS_MILLIS) {
+            allOk &= run(dir, window, seconds, writers);
+        }
+        Files.deleteIfExists(dir);
+        System.out.println(allOk ? "All windows recovered exactly" : "Recovery MISMATCH");
+        if (!allOk) System.exit(1);
+    }
+
+    private static boolean run(Path dir, long windowMillis, int seconds, int writers) throws Exception {
+        String snapshot = dir.resolve("stress-" + windowMillis + ".bin").toString();
+        String journalFile = dir.resolve("stress-" + windowMillis + ".log").toString();
+        Files.deleteIfExists(Paths.get(snapshot));
+        Files.deleteIfExists(Paths.get(journalFile));
+
+        StudentDataManager io = new StudentDataManager();
+        StudentRegistry live = new StudentRegistry(writers * KEYS_PER_WRITER);
+        StudentJournal journal = io.recover(live, snapshot, journalFile, windowMillis);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong ops = new AtomicLong();
+        AtomicLong checkpoints = new AtomicLong();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int base = 1001 + w * KEYS_PER_WRITER; // disjoint ranges: the registry never fills up
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try {
+                    while (!stop.get()) {
+                        int matNo = base + rnd.nextInt(KEYS_PER_WRITER);
+                        if (rnd.nextInt(3) == 0) {
+                            live.removeIfPresent(matNo);
+                        } else {
+                            live.addStudent(Student.ofValidated(matNo, name(rnd), name(rnd), 1980 + rnd.nextInt(30)));
+                        }
+                        ops.incrementAndGet();
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }, "stress-writer-" + w));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                while (!stop.get()) {
+                    io.checkpoint(live, journal, snapshot);
+                    checkpoints.incrementAndGet();
+                }
+            } catch (Throwable t) {
+                errors.add(t);
+            }
+        }, "stress-checkpointer"));
+
+        for (Thread t : threads) t.start();
+        Thread.sleep(seconds * 1000L);
+        stop.set(true);
+        for (Thread t : threads) t.join();
+        journal.close();
+
+        StudentRegistry recovered = new StudentRegistry(writers * KEYS_PER_WRITER);
+        io.recover(recovered, snapshot, journalFile, 0).close();
+        boolean same = errors.isEmpty() && describe(live).equals(describe(recovered));
+        System.out.printf("window %d ms: %d ops, %d checkpoints, %d live, %d recovered -> %s%n",
+                windowMillis, ops.get(), checkpoints.get(), live.size(), recovered.size(), same ? "OK" : "MISMATCH");
+        for (Throwable t : errors) System.out.println("  error: " + t);
+        Files.deleteIfExists(Paths.get(snapshot));
+        Files.deleteIfExists(Paths.get(journalFile));
+        return same;
+    }
+
+    // Mostly short names; every 50th is long enough to push the pending buffer past the group-commit size
+    private static String name(ThreadLocalRandom rnd) {
+        int length = rnd.nextInt(50) == 0 ? 2000 + rnd.nextInt(4000) : 3 + rnd.nextInt(8);
+        char[] c = new char[length];
+        for (int i = 0; i < length; i++) c[i] = (char) ('a' + rnd.nextInt(26));
+        c[0] = Character.toUpperCase(c[0]);
+        return new String(c);
+    }
+
+    // Student.equals compares matNo only, so compare every field
+    private static List<String> describe(StudentRegistry registry) {
+        List<String> rows = new ArrayList<>();
+        for (Student s : registry.list()) {
+            rows.add(s.getMatriculationNumber() + "," + s.getFirstName() + "," + s.getLastName() + "," + s.getBirthYear());
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+}
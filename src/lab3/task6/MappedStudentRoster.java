@@ -0,0 +1,148 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Memory-mapped binary roster
+ * -------------------------------------------------------
+ * Reader for the format written by StudentBinaryFormat: maps the sections and reads them in
+ * place, so opening costs the same for any roster size, findByMatric is a binary search over
+ * the mapped columns, and a Student is only built for records that are actually requested.
+ */
+class MappedStudentRoster implements Iterable<Student>, Closeable {
+    private final FileChannel channel;
+    private final int count;
+    private final MappedByteBuffer matColumn;
+    private final MappedByteBuffer yearColumn;
+    private final MappedByteBuffer nameIndex;
+    private final MappedByteBuffer sortedIndex;
+    private final MappedByteBuffer heap;
+    private final long journalSequence;
+
+    private MappedStudentRoster(FileChannel channel, int count, MappedByteBuffer matColumn, MappedByteBuffer yearColumn,
+                                MappedByteBuffer nameIndex, MappedByteBuffer sortedIndex, MappedByteBuffer heap,
+                                long journalSequence) {
+        this.channel = channel;
+        this.count = count;
+        this.journalSequence = journalSequence;
+        this.matColumn = matColumn;
+        this.yearColumn = yearColumn;
+        this.nameIndex = nameIndex;
+        this.sortedIndex = sortedIndex;
+        this.heap = heap;
+    }
+
+    public static MappedStudentRoster open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(StudentBinaryFormat.HEADER_SIZE);
+            while (header.hasRemaining() && ch.read(header) > 0) { /* fill */ }
+            header.flip();
+            if (header.remaining() < StudentBinaryFormat.HEADER_SIZE_V1) throw new IOException("Truncated binary roster header");
+            if (header.getInt() != StudentBinaryFormat.MAGIC) throw new IOException("Not a binary roster file");
+            int version = header.getInt();
+            if (version < 1 || version > StudentBinaryFormat.VERSION) throw new IOException("Unsupported binary roster version: " + version);
+            int n = header.getInt();
+            header.getInt(); // reserved
+            long matOffset = header.getLong();
+            long yearOffset = header.getLong();
+            long nameIndexOffset = header.getLong();
+            long sortedIndexOffset = header.getLong();
+            long heapOffset = header.getLong();
+            long heapLength = header.getLong();
+            if (version >= 2 && header.remaining() < 8) throw new IOException("Truncated binary roster header");
+            long journalSequence = version >= 2 ? header.getLong() : 0L;
+            if (n < 0 || heapOffset + heapLength > ch.size()) throw new IOException("Corrupt binary roster header");
+
+            long column = 4L * n;
+            return new MappedStudentRoster(ch, n,
+                    ch.map(FileChannel.MapMode.READ_ONLY, matOffset, column),
+                    ch.map(FileChannel.MapMode.READ_ONLY, yearOffset, column),
+                    ch.map(FileChannel.MapMode.READ_ONLY, nameIndexOffset, column),
+                    ch.map(FileChannel.MapMode.READ_ONLY, sortedIndexOffset, column),
+                    ch.map(FileChannel.MapMode.READ_ONLY, heapOffset, heapLength),
+                    journalSequence);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public int size() { return count; }
+    public long getJournalSequence() { return journalSequence; }
+
+    // Column accessors read the mapped file in place
+    public int matriculationNumberAt(int record) { return matColumn.getInt(checkIndex(record) * 4); }
+    public int birthYearAt(int record) { return yearColumn.getInt(checkIndex(record) * 4); }
+    public String firstNameAt(int record) { return name(nameIndex.getInt(checkIndex(record) * 4)); }
+
+    public String lastNameAt(int record) {
+        int offset = nameIndex.getInt(checkIndex(record) * 4);
+        return name(offset + 2 + (heap.getShort(offset) & 0xFFFF));
+    }
+
+    public Student get(int record) {
+        try {
+            return new Student(matriculationNumberAt(record), firstNameAt(record), lastNameAt(record), birthYearAt(record));
+        } catch (InvalidMatriculationNumberException e) {
+            throw new IllegalStateException("Corrupt record " + record + " in binary roster", e);
+        }
+    }
+
+    // Binary search over the sorted index; returns the record number or -1
+    public int indexOfMatric(int matNo) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int record = sortedIndex.getInt(mid * 4);
+            int m = matColumn.getInt(record * 4);
+            if (m < matNo) lo = mid + 1;
+            else if (m > matNo) hi = mid - 1;
+            else return record;
+        }
+        return -1;
+    }
+
+    public Student findByMatric(int matNo) {
+        int record = indexOfMatric(matNo);
+        return record < 0 ? null : get(record);
+    }
+
+    // Lazy iteration in save order; each Student is built on demand
+    @Override
+    public Iterator<Student> iterator() {
+        return new Iterator<Student>() {
+            private int next;
+            @Override public boolean hasNext() { return next < count; }
+            @Override public Student next() {
+                if (next >= count) throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    // Mapped regions stay readable until garbage-collected; closing releases the file handle
+    @Override
+    public void close() throws IOException { channel.close(); }
+
+    private int checkIndex(int record) {
+        if (record < 0 || record >= count) throw new IndexOutOfBoundsException("record " + record + " of " + count);
+        return record;
+    }
+
+    private String name(int offset) {
+        int len = heap.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[len];
+        ByteBuffer view = heap.duplicate();
+        view.position(offset + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,120 @@
+package lab3.task6;
+
+import java.util.Arrays;
+
+/*
+ * Lab 3 - Task 6 (extension): Primitive matNo -> slot index
+ * ----------------------------------------------------------
+ * Open-addressing hash map from int keys to int values, used by StudentRegistry to find the
+ * list slot of a matriculation number in O(1). Keys and values live in two int arrays (no
+ * Integer boxing, no entry objects); collisions use linear probing and removal shifts the
+ * following entries back, so no tombstones are needed inside the table. Not thread-safe.
+ */
+class MatricSlotIndex {
+    static final int MISSING = -1;
+    private static final int FREE = 0; // matNo 0 is never valid (InputValidator), so it marks empty cells
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    MatricSlotIndex() {
+        this(16);
+    }
+
+    MatricSlotIndex(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() { return size; }
+
+    // Slot stored for 'key', or MISSING
+    public int get(int key) {
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == FREE) return MISSING;
+        }
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE) throw new IllegalArgumentException("key 0 is reserved");
+        int i = hash(key) & mask;
+        while (keys[i] != FREE && keys[i] != key) i = (i + 1) & mask;
+        if (keys[i] == FREE) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+        if (size * 4 > keys.length * 3) resize(keys.length * 2);
+    }
+
+    // Returns the removed slot, or MISSING
+    public int remove(int key) {
+        int i = hash(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == FREE) return MISSING;
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        size--;
+        // Backward-shift deletion: move later entries of the probe run into the gap
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            // Entry j may move to 'gap' only if its home is not cyclically inside (gap, j]
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = FREE;
+        return removed;
+    }
+
+    // Grows the table once so that 'expected' keys fit without further resizes
+    public void ensureCapacity(int expected) {
+        int needed = Integer.highestOneBit(Math.max(4, expected * 4 / 3 + 1) - 1) << 1;
+        if (needed > keys.length) resize(needed);
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE) continue;
+            int j = hash(oldKeys[i]) & mask;
+            while (keys[j] != FREE) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+
+    // Mean number of cells a successful get() inspects (1.0 = every key in its home cell)
+    public double averageProbeLength() {
+        long total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) total += ((i - (hash(keys[i]) & mask)) & mask) + 1;
+        }
+        return size == 0 ? 0.0 : (double) total / size;
+    }
+
+    // Matriculation numbers are often sequential; mixing spreads them over the table
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,115 @@
+package lab3.task6;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Parallel memory-mapped CSV import
+ * -------------------------------------------------------------
+ * The file is cut into chunks whose boundaries are moved forward to the next line break,
+ * each chunk is mapped with FileChannel.map and parsed on a ForkJoinPool, and the partial
+ * results are merged into the registry in file order. Merging goes through addAll (one
+ * call per chunk), so maxCapacity and the duplicate-matNo rule behave exactly as for a
+ * sequential import. Only a window of about two chunks per worker is parsed ahead of the
+ * merge, so at most that many parsed chunks are held in memory at once.
+ * Lines must end with "\n" or "\r\n" (the format written by saveToCsv).
+ */
+class ParallelCsvImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 32 * 1024 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelCsvImporter() { this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE); }
+
+    public ParallelCsvImporter(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    // Parses the chunks in parallel, then merges them into the registry in file order. At most a
+    // few chunks per worker are parsed ahead of the merge, so peak memory does not grow with the file.
+    public CsvImportReport importInto(String filename, StudentRegistry registry) throws DataPersistenceException {
+        CsvImportReport report = new CsvImportReport();
+        int window = Math.max(2, pool.getParallelism() * 2);
+        ArrayDeque<ChunkTask> inFlight = new ArrayDeque<>();
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = ch.size();
+            long start = nextLineStart(ch, 0, size); // skip header
+            int chunkIndex = 0;
+            while (start < size || !inFlight.isEmpty()) {
+                while (start < size && inFlight.size() < window) {
+                    long end = start + chunkSize >= size ? size : nextLineStart(ch, start + chunkSize, size);
+                    ChunkTask t = new ChunkTask(ch, new CsvImportReport.ChunkStats(chunkIndex++, start, end - start));
+                    inFlight.add(t);
+                    pool.execute(t);
+                    start = end;
+                }
+
+                ChunkTask t = inFlight.poll();
+                CsvImportReport.ChunkStats stats = t.stats;
+                BulkResult merged = registry.addAll(t.join());
+                stats.added = merged.getApplied();
+                stats.duplicates = merged.getDuplicateCount();
+                stats.overflow = merged.getOverflowCount();
+                report.addChunk(stats);
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to import CSV", e);
+        } catch (UncheckedIOException e) {
+            throw new DataPersistenceException("Failed to import CSV", e.getCause());
+        } finally {
+            for (ChunkTask t : inFlight) t.cancel(true);
+        }
+        return report;
+    }
+
+    // Position just after the first '\n' at or after 'from' (or 'size' if there is none)
+    private static long nextLineStart(FileChannel ch, long from, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long pos = from;
+        while (pos < size) {
+            probe.clear();
+            int n = ch.read(probe, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) if (probe.get(i) == '\n') return pos + i + 1;
+            pos += n;
+        }
+        return size;
+    }
+
+    private static class ChunkTask extends RecursiveTask<List<Student>> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final CsvImportReport.ChunkStats stats;
+
+        ChunkTask(FileChannel channel, CsvImportReport.ChunkStats stats) {
+            this.channel = channel;
+            this.stats = stats;
+        }
+
+        @Override
+        protected List<Student> compute() {
+            List<Student> out = new ArrayList<>();
+            StudentCsvByteParser parser = new StudentCsvByteParser();
+            try {
+                // Chunks never exceed Integer.MAX_VALUE bytes unless a single line does
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, stats.offset, stats.length);
+                parser.parseRows(buf, 0, (int) stats.length, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            stats.rowsParsed = parser.getRowsParsed();
+            stats.rowsRejected = parser.getRowsRejected();
+            return out;
+        }
+    }
+}
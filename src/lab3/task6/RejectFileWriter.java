@@ -0,0 +1,36 @@
+package lab3.task6;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/*
+ * Lab 3 - Task 6 (extension): Reject file
+ * ---------------------------------------
+ * Writes rejected rows as "line<TAB>reason<TAB>row" so they can be fixed and re-imported
+ */
+class RejectFileWriter implements RejectedRowListener, Closeable {
+    private final Writer out;
+    private long count;
+
+    RejectFileWriter(Writer out) throws IOException {
+        this.out = out;
+        out.write("Line\tReason\tRow\n");
+    }
+
+    @Override
+    public void rejected(long lineNumber, int reasonCode, CharSequence row) throws IOException {
+        out.write(Long.toString(lineNumber));
+        out.write('\t');
+        out.write(InputValidator.reason(reasonCode));
+        out.write('\t');
+        out.append(row);
+        out.write('\n');
+        count++;
+    }
+
+    public long getCount() { return count; }
+
+    @Override
+    public void close() throws IOException { out.close(); }
+}
@@ -0,0 +1,12 @@
+package lab3.task6;
+
+import java.io.IOException;
+
+/*
+ * Lab 3 - Task 6 (extension): Rejected-row listener
+ * -------------------------------------------------
+ * Receives every row the bulk path rejects; 'row' is only valid during the call
+ */
+interface RejectedRowListener {
+    void rejected(long lineNumber, int reasonCode, CharSequence row) throws IOException;
+}
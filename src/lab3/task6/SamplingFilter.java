@@ -0,0 +1,30 @@
+package lab3.task6;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Filter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/*
+ * Lab 3 - Task 6 (extension): Sampling log filter
+ * -----------------------------------------------
+ * Lets through one in 'every' records at or below 'maxLevel' (per-record chatter); anything above always passes.
+ * Installed on a Logger it runs before the record is formatted, so sampled-out records cost almost nothing.
+ */
+class SamplingFilter implements Filter {
+    private final Level maxLevel;
+    private final int every;
+    private final AtomicLong seen = new AtomicLong();
+
+    SamplingFilter(Level maxLevel, int every) {
+        if (every <= 0) throw new IllegalArgumentException("every must be positive");
+        this.maxLevel = maxLevel;
+        this.every = every;
+    }
+
+    @Override
+    public boolean isLoggable(LogRecord record) {
+        if (record.getLevel().intValue() > maxLevel.intValue()) return true;
+        return seen.getAndIncrement() % every == 0;
+    }
+}
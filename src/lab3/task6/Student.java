@@ -0,0 +1,70 @@
+package lab3.task6;
+
+import java.util.Calendar;
+import java.util.Objects;
+
+/*
+ * Lab 3 - Task 6: Domain model
+ * ----------------------------
+ * Immutable student record; the public constructor validates every field.
+ */
+class Student {
+    private final int matriculationNumber;
+    private final String firstName;
+    private final String lastName;
+    private final int birthYear;
+
+    public Student(int matriculationNumber, String firstName, String lastName, int birthYear)
+            throws InvalidMatriculationNumberException {
+        this(validated(matriculationNumber, firstName, lastName), birthYear, firstName, lastName);
+    }
+
+    // Shared by both creation paths: assigns the fields and trims the names
+    private Student(int matriculationNumber, int birthYear, String firstName, String lastName) {
+        this.matriculationNumber = matriculationNumber;
+        this.firstName = firstName.trim();
+        this.lastName = lastName.trim();
+        this.birthYear = birthYear;
+    }
+
+    // Bulk-load path: the caller already checked the fields with InputValidator result codes
+    static Student ofValidated(int matriculationNumber, String firstName, String lastName, int birthYear) {
+        return new Student(matriculationNumber, birthYear, firstName, lastName);
+    }
+
+    // Same checks (and order) as before; returns the matNo so the public constructor can delegate
+    private static int validated(int matriculationNumber, String firstName, String lastName)
+            throws InvalidMatriculationNumberException {
+        InputValidator.validateMatriculationNumber(matriculationNumber);
+        InputValidator.validateName(firstName);
+        InputValidator.validateName(lastName);
+        return matriculationNumber;
+    }
+
+    public int getMatriculationNumber() { return matriculationNumber; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public int getBirthYear() { return birthYear; }
+
+    public int getAge() {
+        int currentYear = Calendar.getInstance().get(Calendar.YEAR);
+        return Math.max(0, currentYear - birthYear);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Student)) return false;
+        Student student = (Student) o;
+        return matriculationNumber == student.matriculationNumber;
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(matriculationNumber); }
+
+    @Override
+    public String toString() {
+        return String.format("Student{matNo=%d, name=%s %s, birthYear=%d}",
+                matriculationNumber, firstName, lastName, birthYear);
+    }
+}
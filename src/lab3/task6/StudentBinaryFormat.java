@@ -0,0 +1,128 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Compact binary roster format
+ * --------------------------------------------------------
+ * Layout (big-endian, all sections start at the offsets stored in the header):
+ *
+ *   header       magic "STUB", version, count, reserved, then 6 longs:
+ *                matColumn, yearColumn, nameIndex, sortedIndex, heap offsets + heap length
+ *                (version 2 adds a 7th long: the last journal sequence the roster contains)
+ *   matColumn    int32 matriculationNumber per record (record order = save order)
+ *   yearColumn   int32 birthYear per record
+ *   nameIndex    int32 offset of the record's names inside the heap
+ *   sortedIndex  int32 record numbers ordered by matriculationNumber (for binary search)
+ *   heap         per record: u16 length + UTF-8 firstName, u16 length + UTF-8 lastName
+ *
+ * MappedStudentRoster maps the sections and reads them in place: opening the file costs
+ * the same for 3 or 20M students, findByMatric is a binary search over the mapped columns,
+ * and a Student object is only built for records that are actually requested.
+ */
+final class StudentBinaryFormat {
+    static final int MAGIC = 0x53545542; // "STUB"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE_V1 = 64;
+    static final int HEADER_SIZE = 72;
+    static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private StudentBinaryFormat() {}
+
+    public static void write(List<Student> students, Path file) throws IOException {
+        write(students, file, 0L);
+    }
+
+    // journalSequence: last StudentJournal record already reflected in 'students' (0 if none)
+    public static void write(List<Student> students, Path file, long journalSequence) throws IOException {
+        int n = students.size();
+
+        // Pass 1: name heap layout (encoded sizes only, nothing is encoded yet)
+        int[] nameOffsets = new int[n];
+        long heapLength = 0;
+        for (int i = 0; i < n; i++) {
+            nameOffsets[i] = (int) heapLength;
+            Student s = students.get(i);
+            heapLength += 4 + nameLength(s.getFirstName()) + nameLength(s.getLastName());
+            // Checked after each record, so the last one cannot push the heap past int offsets
+            if (heapLength > Integer.MAX_VALUE) throw new IOException("Name heap exceeds 2 GB");
+        }
+
+        // Record numbers ordered by matNo; packing (matNo, record) into a long keeps the sort primitive
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = ((long) students.get(i).getMatriculationNumber() << 32) | i;
+        Arrays.sort(keys);
+
+        long matOffset = HEADER_SIZE;
+        long yearOffset = matOffset + 4L * n;
+        long nameIndexOffset = yearOffset + 4L * n;
+        long sortedIndexOffset = nameIndexOffset + 4L * n;
+        long heapOffset = sortedIndexOffset + 4L * n;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            out.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(0);
+            out.putLong(matOffset).putLong(yearOffset).putLong(nameIndexOffset)
+               .putLong(sortedIndexOffset).putLong(heapOffset).putLong(heapLength);
+            out.putLong(journalSequence);
+
+            for (int i = 0; i < n; i++) putInt(ch, out, students.get(i).getMatriculationNumber());
+            for (int i = 0; i < n; i++) putInt(ch, out, students.get(i).getBirthYear());
+            for (int i = 0; i < n; i++) putInt(ch, out, nameOffsets[i]);
+            for (int i = 0; i < n; i++) putInt(ch, out, (int) keys[i]);
+            for (int i = 0; i < n; i++) {
+                Student s = students.get(i);
+                putName(ch, out, s.getFirstName());
+                putName(ch, out, s.getLastName());
+            }
+            flush(ch, out);
+            ch.force(true);
+        }
+    }
+
+    private static int nameLength(String name) throws IOException {
+        int len = utf8Length(name);
+        if (len > MAX_NAME_BYTES) throw new IOException("Name too long for binary format: " + len + " bytes");
+        return len;
+    }
+
+    static int utf8Length(String s) {
+        int len = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) len++;
+            else if (c < 0x800) len += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                len += 4;
+                i++;
+            } else len += 3;
+        }
+        return len;
+    }
+
+    private static void putInt(FileChannel ch, ByteBuffer out, int v) throws IOException {
+        if (out.remaining() < 4) flush(ch, out);
+        out.putInt(v);
+    }
+
+    private static void putName(FileChannel ch, ByteBuffer out, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (out.remaining() < 2 + bytes.length) flush(ch, out);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) ch.write(out);
+        out.clear();
+    }
+}
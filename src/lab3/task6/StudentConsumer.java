@@ -0,0 +1,10 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6 (extension): Streaming import callback
+ * -----------------------------------------------------
+ * Callback used by the streaming import methods; may throw to stop the import (e.g. registry full)
+ */
+interface StudentConsumer {
+    void accept(Student s) throws StudentManagementException;
+}
@@ -0,0 +1,116 @@
+package lab3.task6;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/*
+ * Lab 3 - Task 6 (extension): Byte-level CSV row parser
+ * -----------------------------------------------------
+ * Same row rules as StudentCsvReader, but works on UTF-8 bytes in a (mapped) ByteBuffer.
+ */
+class StudentCsvByteParser {
+    private static final int FIELDS = 4;
+    private static final long INVALID = Long.MIN_VALUE;
+
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+    private byte[] scratch = new byte[128];
+    private long rowsParsed;
+    private long rowsRejected;
+
+    // Parses every line in [start, end) of buf and appends the valid students to 'out'
+    public void parseRows(ByteBuffer buf, int start, int end, List<Student> out) {
+        int lineStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buf.get(i) == '\n') {
+                int lineEnd = i;
+                if (lineEnd > lineStart && buf.get(lineEnd - 1) == '\r') lineEnd--;
+                if (i < end || lineEnd > lineStart) {
+                    rowsParsed++;
+                    Student s = parseRow(buf, lineStart, lineEnd);
+                    if (s != null) out.add(s);
+                    else rowsRejected++;
+                }
+                lineStart = i + 1;
+            }
+        }
+    }
+
+    public long getRowsParsed() { return rowsParsed; }
+    public long getRowsRejected() { return rowsRejected; }
+
+    private Student parseRow(ByteBuffer buf, int start, int end) {
+        int field = 0;
+        int fs = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buf.get(i) == ',') {
+                if (field < FIELDS) {
+                    fieldStart[field] = fs;
+                    fieldEnd[field] = i;
+                } else if (i > fs) {
+                    return null;
+                }
+                field++;
+                fs = i + 1;
+            }
+        }
+        if (field < FIELDS) return null;
+
+        long mat = parseInt(buf, 0);
+        long by = parseInt(buf, 3);
+        if (mat == INVALID || by == INVALID) return null;
+        // Result-code validation (see InputValidator): rejected rows cost no exception
+        if (InputValidator.checkMatriculationNumber((int) mat) != InputValidator.VALID) return null;
+        String fn = decode(buf, 1);
+        if (InputValidator.checkName(fn) != InputValidator.VALID) return null;
+        String ln = decode(buf, 2);
+        if (InputValidator.checkName(ln) != InputValidator.VALID) return null;
+        return Student.ofValidated((int) mat, fn, ln, (int) by);
+    }
+
+    // UTF-8 multi-byte sequences only contain bytes >= 0x80, so trimming bytes <= ' ' is safe
+    private int trimStart(ByteBuffer buf, int field) {
+        int s = fieldStart[field];
+        int e = fieldEnd[field];
+        while (s < e && (buf.get(s) & 0xFF) <= ' ') s++;
+        return s;
+    }
+
+    private int trimEnd(ByteBuffer buf, int field, int s) {
+        int e = fieldEnd[field];
+        while (e > s && (buf.get(e - 1) & 0xFF) <= ' ') e--;
+        return e;
+    }
+
+    private String decode(ByteBuffer buf, int field) {
+        int s = trimStart(buf, field);
+        int e = trimEnd(buf, field, s);
+        int len = e - s;
+        if (len > scratch.length) scratch = new byte[Math.max(len, scratch.length * 2)];
+        for (int i = 0; i < len; i++) scratch[i] = buf.get(s + i);
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private long parseInt(ByteBuffer buf, int field) {
+        int s = trimStart(buf, field);
+        int e = trimEnd(buf, field, s);
+        if (s == e) return INVALID;
+        boolean negative = false;
+        byte first = buf.get(s);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++s == e) return INVALID;
+        }
+        long value = 0;
+        for (int i = s; i < e; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) return INVALID;
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1) return INVALID;
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) return INVALID;
+        return value;
+    }
+}
@@ -0,0 +1,211 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.CharBuffer;
+import java.util.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Streaming CSV reader
+ * ------------------------------------------------
+ * Reads the format written by StudentDataManager.saveToCsv one row at a time.
+ * Rows are parsed character by character into reused buffers (no readLine, no split,
+ * no trim, no Integer.parseInt), so the only per-row allocations are the two name
+ * Strings and the Student itself. Malformed rows are skipped, like loadFromCsv does.
+ * Rows are validated with InputValidator result codes instead of exceptions; rejected rows can
+ * be reported (with line number and reason) to a RejectedRowListener such as RejectFileWriter.
+ */
+class StudentCsvReader implements Iterator<Student>, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FIELDS = 4;
+    private static final long INVALID = Long.MIN_VALUE;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean skipLineFeed; // last line ended with '\r', so a following '\n' belongs to it
+
+    // Current line and the [start, end) bounds of its fields; all reused across rows
+    private char[] line = new char[256];
+    private int lineLength;
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+
+    private Student next;
+    private long lineNumber;
+    private long rowsRead;
+    private long rowsSkipped;
+    private int rejectCode;
+    private RejectedRowListener rejectListener;
+
+    StudentCsvReader(Reader in, boolean skipHeader) throws IOException {
+        this.in = in;
+        if (skipHeader) readLine();
+    }
+
+    public void setRejectListener(RejectedRowListener listener) { this.rejectListener = listener; }
+
+    // Returns the next valid student, or null at end of input
+    public Student read() throws IOException {
+        while (readLine()) {
+            rowsRead++;
+            Student s = parseLine();
+            if (s != null) return s;
+            rowsSkipped++;
+            if (rejectListener != null) rejectListener.rejected(lineNumber, rejectCode, CharBuffer.wrap(line, 0, lineLength));
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Student next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Student s = next;
+        next = null;
+        return s;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public long getRowsSkipped() { return rowsSkipped; }
+
+    @Override
+    public void close() throws IOException { in.close(); }
+
+    void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // nothing useful to do while tearing down a stream
+        }
+    }
+
+    // Copies the next line (without terminator) into 'line'; false at end of input.
+    // Accepts "\n", "\r\n" and "\r" as terminators, like BufferedReader.readLine.
+    private boolean readLine() throws IOException {
+        lineNumber++;
+        lineLength = 0;
+        boolean any = false;
+        while (true) {
+            if (pos >= limit && !fill()) return any;
+            char c = buf[pos++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') continue;
+            }
+            any = true;
+            if (c == '\n') return true;
+            if (c == '\r') {
+                skipLineFeed = true;
+                return true;
+            }
+            if (lineLength == line.length) line = Arrays.copyOf(line, line.length * 2);
+            line[lineLength++] = c;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) {
+            eof = true;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private Student parseLine() {
+        // Split on commas; trailing empty fields are ignored, matching String.split(",")
+        int field = 0;
+        int start = 0;
+        for (int i = 0; i <= lineLength; i++) {
+            if (i == lineLength || line[i] == ',') {
+                if (field < FIELDS) {
+                    fieldStart[field] = start;
+                    fieldEnd[field] = i;
+                } else if (i > start) {
+                    return reject(InputValidator.MALFORMED_ROW); // non-empty 5th field
+                }
+                field++;
+                start = i + 1;
+            }
+        }
+        if (field < FIELDS) return reject(InputValidator.MALFORMED_ROW);
+
+        long mat = parseInt(0);
+        long by = parseInt(3);
+        if (mat == INVALID || by == INVALID) return reject(InputValidator.INVALID_NUMBER);
+        // Same checks and order as the Student constructor, but as result codes: no exception per bad row
+        int code = InputValidator.checkMatriculationNumber((int) mat);
+        if (code != InputValidator.VALID) return reject(code);
+        String fn = trimmed(1);
+        code = InputValidator.checkName(fn);
+        if (code != InputValidator.VALID) return reject(code);
+        String ln = trimmed(2);
+        code = InputValidator.checkName(ln);
+        if (code != InputValidator.VALID) return reject(code);
+        return Student.ofValidated((int) mat, fn, ln, (int) by);
+    }
+
+    private Student reject(int code) {
+        rejectCode = code;
+        return null;
+    }
+
+    private String trimmed(int field) {
+        int s = trimStart(field);
+        int e = trimEnd(field, s);
+        return new String(line, s, e - s);
+    }
+
+    // Same whitespace rule as String.trim(): everything <= ' '
+    private int trimStart(int field) {
+        int s = fieldStart[field];
+        int e = fieldEnd[field];
+        while (s < e && line[s] <= ' ') s++;
+        return s;
+    }
+
+    private int trimEnd(int field, int s) {
+        int e = fieldEnd[field];
+        while (e > s && line[e - 1] <= ' ') e--;
+        return e;
+    }
+
+    // Integer.parseInt semantics on the trimmed field, without creating a String
+    private long parseInt(int field) {
+        int s = trimStart(field);
+        int e = trimEnd(field, s);
+        if (s == e) return INVALID;
+        boolean negative = false;
+        char first = line[s];
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++s == e) return INVALID;
+        }
+        long value = 0;
+        for (int i = s; i < e; i++) {
+            int d = line[i] - '0';
+            if (d < 0 || d > 9) return INVALID;
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1) return INVALID;
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) return INVALID;
+        return value;
+    }
+}
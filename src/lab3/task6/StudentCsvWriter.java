@@ -0,0 +1,37 @@
+package lab3.task6;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/*
+ * Lab 3 - Task 6 (extension): CSV block writer
+ * --------------------------------------------
+ * Same layout as the original saveToCsv: header line, then "matNo,firstName,lastName,birthYear"
+ */
+class StudentCsvWriter extends BlockTextWriter {
+    private static final byte[] HEADER = "MatriculationNumber,FirstName,LastName,BirthYear".getBytes();
+
+    StudentCsvWriter(WritableByteChannel out, boolean writeHeader) throws IOException {
+        this(out, writeHeader, DEFAULT_BLOCK_SIZE);
+    }
+
+    StudentCsvWriter(WritableByteChannel out, boolean writeHeader, int blockSize) throws IOException {
+        super(out, blockSize);
+        if (writeHeader) {
+            putAscii(HEADER);
+            newLine();
+        }
+    }
+
+    @Override
+    public void write(Student s) throws IOException {
+        putInt(s.getMatriculationNumber());
+        putByte(',');
+        putString(s.getFirstName(), false);
+        putByte(',');
+        putString(s.getLastName(), false);
+        putByte(',');
+        putInt(s.getBirthYear());
+        newLine();
+    }
+}
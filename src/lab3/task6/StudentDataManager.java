@@ -0,0 +1,296 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Lab 3 - Task 6: Data persistence (CSV + simple JSON)
+ * ----------------------------------------------------
+ * Saves and loads rosters in every supported format and recovers a registry from its
+ * snapshot and journal. Files are opened with try-with-resources; I/O errors become
+ * DataPersistenceException.
+ */
+class StudentDataManager {
+    private static final String CSV_HEADER = "MatriculationNumber,FirstName,LastName,BirthYear";
+
+    /*
+    public void saveToCsv(list<student> students, string filename ) throws datapersistenceexception {
+        // implementation
+    }
+        try (print)
+    */
+    // Save as CSV using try-with-resources (StudentCsvWriter encodes rows straight into a byte block)
+    public void saveToCsv(List<Student> students, String filename) throws DataPersistenceException {
+        try (StudentCsvWriter out = new StudentCsvWriter(openForWrite(filename), true)) {
+            for (Student s : students) out.write(s);
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to save CSV", e);
+        }
+    }
+
+    // Load from CSV with basic validation and error recovery (skip bad lines)
+    public List<Student> loadFromCsv(String filename) throws DataPersistenceException {
+        List<Student> res = new ArrayList<>();
+        try (StudentCsvReader reader = openCsv(filename)) {
+            Student s;
+            while ((s = reader.read()) != null) res.add(s);
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to load CSV", e);
+        }
+        return res;
+    }
+
+    // Streaming CSV access: one row at a time, so memory use does not grow with the file
+    public StudentCsvReader openCsv(String filename) throws DataPersistenceException {
+        try {
+            return new StudentCsvReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8), true);
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to open CSV", e);
+        }
+    }
+
+    // Lazy stream over the CSV rows; close it (try-with-resources) to release the file
+    public Stream<Student> streamFromCsv(String filename) throws DataPersistenceException {
+        StudentCsvReader reader = openCsv(filename);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::closeQuietly);
+    }
+
+    // Callback variant: hands every valid row to 'action' and returns how many were delivered
+    public long forEachFromCsv(String filename, StudentConsumer action) throws StudentManagementException {
+        long count = 0;
+        try (StudentCsvReader reader = openCsv(filename)) {
+            Student s;
+            while ((s = reader.read()) != null) {
+                action.accept(s);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to load CSV", e);
+        }
+        return count;
+    }
+
+    // Bulk variant: rejected rows are written with line number and reason to 'rejectFile'
+    public long forEachFromCsv(String filename, StudentConsumer action, String rejectFile) throws StudentManagementException {
+        long count = 0;
+        try (StudentCsvReader reader = openCsv(filename);
+             RejectFileWriter rejects = new RejectFileWriter(new BufferedWriter(new OutputStreamWriter(
+                     new FileOutputStream(rejectFile), StandardCharsets.UTF_8)))) {
+            reader.setRejectListener(rejects);
+            Student s;
+            while ((s = reader.read()) != null) {
+                action.accept(s);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to load CSV", e);
+        }
+        return count;
+    }
+
+    // Feeds the CSV straight into the registry without building an intermediate list
+    public long importCsv(String filename, StudentRegistry registry) throws StudentManagementException {
+        return forEachFromCsv(filename, registry::addStudent);
+    }
+
+    public long importCsv(String filename, StudentRegistry registry, String rejectFile) throws StudentManagementException {
+        return forEachFromCsv(filename, registry::addStudent, rejectFile);
+    }
+
+    // Memory-mapped import that parses line-aligned chunks on a ForkJoinPool (see ParallelCsvImporter)
+    public CsvImportReport importCsvParallel(String filename, StudentRegistry registry) throws DataPersistenceException {
+        return new ParallelCsvImporter().importInto(filename, registry);
+    }
+
+    // Simple JSON writer (no external libs): writes a JSON array of objects, one per line
+    public void saveToJson(List<Student> students, String filename) throws DataPersistenceException {
+        try (StudentJsonWriter out = new StudentJsonWriter(openForWrite(filename))) {
+            for (Student s : students) out.write(s);
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to save JSON", e);
+        }
+    }
+
+    // Streaming JSON loader (see StudentJsonReader): bounded memory, no regex splitting
+    public List<Student> loadFromJson(String filename) throws DataPersistenceException {
+        List<Student> res = new ArrayList<>();
+        try (StudentJsonReader reader = openJson(filename)) {
+            Student s;
+            while ((s = reader.read()) != null) res.add(s);
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to load JSON", e);
+        } catch (DataPersistenceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataPersistenceException("Malformed JSON content", e);
+        }
+        return res;
+    }
+
+    public StudentJsonReader openJson(String filename) throws DataPersistenceException {
+        try {
+            return new StudentJsonReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to open JSON", e);
+        }
+    }
+
+    // Lazy stream over the JSON array; close it (try-with-resources) to release the file
+    public Stream<Student> streamFromJson(String filename) throws DataPersistenceException {
+        StudentJsonReader reader = openJson(filename);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::closeQuietly);
+    }
+
+    // Versioned binary format (see StudentBinaryFormat): fixed-width columns + name heap + sorted index
+    public void saveToBinary(List<Student> students, String filename) throws DataPersistenceException {
+        try {
+            StudentBinaryFormat.write(students, Paths.get(filename));
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to save binary roster", e);
+        }
+    }
+
+    // Memory-maps the file; lookups and iteration read records in place. Close when done.
+    public MappedStudentRoster openBinary(String filename) throws DataPersistenceException {
+        try {
+            return MappedStudentRoster.open(Paths.get(filename));
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to open binary roster", e);
+        }
+    }
+
+    public List<Student> loadFromBinary(String filename) throws DataPersistenceException {
+        try (MappedStudentRoster roster = openBinary(filename)) {
+            List<Student> res = new ArrayList<>(roster.size());
+            for (Student s : roster) res.add(s);
+            return res;
+        } catch (IOException | IllegalStateException e) {
+            throw new DataPersistenceException("Failed to load binary roster", e);
+        }
+    }
+
+    // Columnar analytics file (see ColumnarStudentFormat): encoded columns + per-block zone maps
+    public void saveToColumnar(List<Student> students, String filename) throws DataPersistenceException {
+        try {
+            ColumnarStudentFormat.write(students, Paths.get(filename));
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to save columnar file", e);
+        }
+    }
+
+    // Memory-maps the file for scan()/count(); close when done
+    public ColumnarStudentFile openColumnar(String filename) throws DataPersistenceException {
+        try {
+            return ColumnarStudentFile.open(Paths.get(filename));
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to open columnar file", e);
+        }
+    }
+
+    public List<Student> loadFromColumnar(String filename) throws DataPersistenceException {
+        try (ColumnarStudentFile file = openColumnar(filename)) {
+            return file.readAll();
+        } catch (IOException | IllegalStateException e) {
+            throw new DataPersistenceException("Failed to load columnar file", e);
+        }
+    }
+
+    // Block-compressed container (see BlockCompressedRoster): blocks are deflated/inflated in parallel
+    public void saveToCompressed(List<Student> students, String filename) throws DataPersistenceException {
+        try {
+            new BlockCompressedRoster().write(students, Paths.get(filename));
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to save compressed roster", e);
+        }
+    }
+
+    public List<Student> loadFromCompressed(String filename) throws DataPersistenceException {
+        try {
+            return new BlockCompressedRoster().read(Paths.get(filename));
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to load compressed roster", e);
+        }
+    }
+
+    // Base CSV plus the delta segments written by DeltaSegmentStore.saveDelta, merged in order
+    public List<Student> loadFromCsvWithDeltas(String filename) throws DataPersistenceException {
+        try {
+            return new DeltaSegmentStore(Paths.get(filename)).loadMerged();
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to load CSV with delta segments", e);
+        }
+    }
+
+    // Compaction command: folds the delta segments back into one CSV file
+    public void compactDeltas(String filename) throws DataPersistenceException {
+        try {
+            new DeltaSegmentStore(Paths.get(filename)).compact();
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to compact delta segments", e);
+        }
+    }
+
+    // Asynchronous saves (see AsyncSaveQueue): O(1) copy-on-write snapshot now, disk I/O on an I/O thread.
+    // Overlapping saves of the same file coalesce, so only the latest state is written.
+    public CompletableFuture<Void> saveToCsvAsync(StudentRegistry registry, String filename) {
+        return saveAsync(registry, filename, this::saveToCsv);
+    }
+
+    public CompletableFuture<Void> saveToJsonAsync(StudentRegistry registry, String filename) {
+        return saveAsync(registry, filename, this::saveToJson);
+    }
+
+    public CompletableFuture<Void> saveToBinaryAsync(StudentRegistry registry, String filename) {
+        return saveAsync(registry, filename, this::saveToBinary);
+    }
+
+    private CompletableFuture<Void> saveAsync(StudentRegistry registry, String filename, StudentSaveAction action) {
+        String target = Paths.get(filename).toAbsolutePath().normalize().toString();
+        return AsyncSaveQueue.SHARED.submit(target, registry.snapshot(), action);
+    }
+
+    /*
+     * Rebuilds 'registry' from the last binary snapshot (if any) plus the journal records it does
+     * not contain yet, then attaches the journal so further mutations are logged.
+     */
+    public StudentJournal recover(StudentRegistry registry, String snapshotFile, String journalFile,
+                                  long durabilityWindowMillis) throws StudentManagementException {
+        try {
+            long seq = 0;
+            if (Files.exists(Paths.get(snapshotFile))) {
+                try (MappedStudentRoster roster = openBinary(snapshotFile)) {
+                    for (Student s : roster) registry.addStudent(s);
+                    seq = roster.getJournalSequence();
+                }
+            }
+            seq = StudentJournal.replay(Paths.get(journalFile), registry, seq);
+            StudentJournal journal = StudentJournal.open(Paths.get(journalFile), durabilityWindowMillis, seq);
+            registry.setWriteAheadLog(journal);
+            return journal;
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to recover registry", e);
+        }
+    }
+
+    // Synchronous checkpoint: binary snapshot tagged with the journal position, then journal compaction
+    public void checkpoint(StudentRegistry registry, StudentJournal journal, String snapshotFile) throws DataPersistenceException {
+        try {
+            new BackgroundSnapshotter(registry, journal, Paths.get(snapshotFile), 0, 0).snapshotNow();
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to checkpoint registry", e);
+        }
+    }
+
+    private static FileChannel openForWrite(String filename) throws IOException {
+        return FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
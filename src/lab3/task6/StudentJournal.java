@@ -0,0 +1,452 @@
+package lab3.task6;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/*
+ * Lab 3 - Task 6 (extension): Write-ahead journal for StudentRegistry
+ * -------------------------------------------------------------------
+ * Append-only log of addStudent/removeByMatric operations, so persistence cost follows the
+ * mutation rate instead of the registry size. Attached as the registry's StudentWriteAheadLog,
+ * it validates and encodes every mutation before the registry applies it; if that fails (journal
+ * closed, earlier I/O failure, name too long), the registry stays unchanged. Records go to an
+ * in-memory buffer; a flusher thread writes the buffer and fsyncs once per durability window
+ * (group commit), so many operations share one fsync. A window of 0 means every record is
+ * written and forced before the mutation is applied.
+ *
+ * File: magic "STUJ", version, then records
+ *   int payloadLength | payload | int crc32(payload)
+ *   payload = long sequence, byte op, int matNo [, int birthYear, u16+UTF-8 firstName, u16+UTF-8 lastName]
+ *
+ * Recovery loads the last snapshot and replays only records with a higher sequence number.
+ * A torn record at the end of the file (crash during write) ends the replay and is cut off.
+ * After a snapshot, compactThrough drops the records it covers (see BackgroundSnapshotter).
+ */
+class StudentJournal implements StudentWriteAheadLog, Closeable {
+    static final int MAGIC = 0x5354554A; // "STUJ"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int GROUP_COMMIT_BYTES = 256 * 1024; // flush early once this much is pending
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private final Path file;
+    private final long windowMillis;
+    private final Object lock = new Object();
+    private final Thread flusher;
+
+    // Guarded by 'lock'
+    private FileChannel channel; // replaced by compactThrough
+    private long sizeBytes;      // record bytes in the file plus pending ones
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer writing = ByteBuffer.allocate(64 * 1024);
+    private long lastSequence;
+    private long durableSequence;
+    private boolean flushRequested;
+    private boolean flushing;    // the flusher is writing 'writing' outside the lock
+    private boolean closed;
+    private IOException failure;
+
+    private final CRC32 crc = new CRC32(); // used under 'lock' only
+
+    private StudentJournal(Path file, FileChannel channel, long lastSequence, long windowMillis) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.sizeBytes = channel.size() - HEADER_SIZE;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.windowMillis = windowMillis;
+        if (windowMillis > 0) {
+            flusher = new Thread(this::flushLoop, "student-journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    /*
+     * Opens (or creates) the journal for appending. A torn tail is truncated. Sequence numbers
+     * continue after max(last record in the file, minSequence) - pass the snapshot's sequence so
+     * that numbering never goes backwards after the journal was reset.
+     */
+    public static StudentJournal open(Path file, long durabilityWindowMillis, long minSequence) throws IOException {
+        if (durabilityWindowMillis < 0) throw new IllegalArgumentException("durabilityWindowMillis must be >= 0");
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long last;
+            if (ch.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                while (header.hasRemaining()) ch.write(header);
+                ch.force(true);
+                last = 0;
+            } else {
+                ScanResult scan = scan(ch, 0);
+                ch.truncate(scan.validEnd);
+                ch.position(scan.validEnd);
+                last = scan.lastSequence;
+            }
+            return new StudentJournal(file, ch, Math.max(last, minSequence), durabilityWindowMillis);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    // Applies all records with sequence > afterSequence to the registry; returns the last sequence seen
+    public static long replay(Path file, StudentRegistry registry, long afterSequence)
+            throws IOException, StudentRegistryFullException {
+        if (!Files.exists(file)) return afterSequence;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return Math.max(afterSequence, scan(ch, registry, afterSequence).lastSequence);
+        }
+    }
+
+    // ------------------------- Write-ahead callbacks -------------------------
+    @Override
+    public void logAdd(Student s) {
+        byte[] first = s.getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] last = s.getLastName().getBytes(StandardCharsets.UTF_8);
+        if (first.length > MAX_NAME_BYTES || last.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name too long for journal: matNo=" + s.getMatriculationNumber());
+        }
+        append(OP_ADD, s.getMatriculationNumber(), s.getBirthYear(), first, last);
+    }
+
+    @Override
+    public void logRemove(Student s) {
+        append(OP_REMOVE, s.getMatriculationNumber(), 0, null, null);
+    }
+
+    // ------------------------- Durability -------------------------
+    public long getLastSequence() {
+        synchronized (lock) { return lastSequence; }
+    }
+
+    public long getDurableSequence() {
+        synchronized (lock) { return durableSequence; }
+    }
+
+    // Bytes of records that a replay would have to read (used for snapshot cadence)
+    public long getSizeBytes() {
+        synchronized (lock) { return sizeBytes; }
+    }
+
+    // Blocks until every operation appended so far is on disk; returns that sequence number
+    public long sync() throws IOException {
+        synchronized (lock) {
+            syncLocked();
+            return lastSequence;
+        }
+    }
+
+    // Blocks until the operation with the given sequence number is on disk
+    public void awaitDurable(long sequence) throws IOException {
+        synchronized (lock) {
+            awaitLocked(sequence);
+        }
+    }
+
+    /*
+     * Drops the records up to 'sequence' once a durable snapshot contains them. Records appended
+     * after that point (the writers kept going while the snapshot was written) are copied into a
+     * fresh file that atomically replaces the old one. Appends wait while this runs; the copied
+     * tail is only what arrived during one snapshot, not the whole history.
+     * The file is only touched once no flusher write is in flight and everything appended is on
+     * disk, and it is read through its own channel, so the append channel's position never moves.
+     */
+    public void compactThrough(long sequence) throws IOException {
+        synchronized (lock) {
+            quiesceLocked();
+            if (lastSequence <= sequence) {
+                channel.truncate(HEADER_SIZE);
+                channel.position(HEADER_SIZE);
+                channel.force(true);
+                sizeBytes = 0;
+                return;
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                ScanResult kept = scan(in, sequence);
+                if (kept.validEnd != in.size()) {
+                    // Cannot happen once quiesced; copying only the readable prefix would lose records
+                    throw new IOException("Journal has unreadable bytes at offset " + kept.validEnd + "; not compacting");
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                while (header.hasRemaining()) out.write(header);
+                long pos = kept.firstOffsetAfter;
+                while (pos < kept.validEnd) pos += in.transferTo(pos, kept.validEnd - pos, out);
+                out.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel old = channel;
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            sizeBytes = channel.size() - HEADER_SIZE;
+            old.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            if (flusher != null) flusher.join();
+            synchronized (lock) {
+                flushLocked(); // anything appended after the flusher exited
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing journal");
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ------------------------- Internals -------------------------
+    private void append(byte op, int matNo, int birthYear, byte[] first, byte[] last) {
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Journal is closed");
+            if (failure != null) throw new UncheckedIOException("Journal write failed earlier", failure);
+            int payload = 8 + 1 + 4 + (op == OP_ADD ? 4 + 2 + first.length + 2 + last.length : 0);
+            ensurePending(4 + payload + 4);
+
+            long seq = ++lastSequence;
+            int start = pending.position();
+            pending.putInt(payload);
+            pending.putLong(seq).put(op).putInt(matNo);
+            if (op == OP_ADD) {
+                pending.putInt(birthYear);
+                pending.putShort((short) first.length).put(first);
+                pending.putShort((short) last.length).put(last);
+            }
+            crc.reset();
+            crc.update(pending.array(), start + 4, payload);
+            pending.putInt((int) crc.getValue());
+            sizeBytes += 4 + payload + 4;
+
+            if (flusher == null) {
+                try {
+                    flushLocked();
+                } catch (IOException e) {
+                    failure = e;
+                    throw new UncheckedIOException(e);
+                }
+            } else if (pending.position() >= GROUP_COMMIT_BYTES) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void ensurePending(int bytes) {
+        if (pending.remaining() >= bytes) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+        pending.flip();
+        bigger.put(pending);
+        pending = bigger;
+    }
+
+    // Makes everything appended so far durable; caller holds 'lock'
+    private void syncLocked() throws IOException {
+        if (flusher == null) {
+            flushLocked();
+        } else {
+            flushRequested = true;
+            lock.notifyAll();
+            awaitLocked(lastSequence);
+        }
+    }
+
+    /*
+     * Waits for an in-flight flusher write, then writes and forces whatever is still pending on
+     * this thread. Caller holds 'lock', so no append or flusher write can start until it is
+     * released: afterwards the file ends exactly at lastSequence.
+     */
+    private void quiesceLocked() throws IOException {
+        while (flushing) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for journal flush");
+            }
+        }
+        if (failure != null) throw new IOException("Journal write failed", failure);
+        flushLocked();
+    }
+
+    // Synchronous path (window 0, close, compaction): caller holds 'lock' and no flusher write is in flight
+    private void flushLocked() throws IOException {
+        if (pending.position() > 0) {
+            pending.flip();
+            while (pending.hasRemaining()) channel.write(pending);
+            pending.clear();
+            channel.force(false);
+        }
+        durableSequence = lastSequence;
+        lock.notifyAll();
+    }
+
+    private void awaitLocked(long sequence) throws IOException {
+        while (durableSequence < sequence) {
+            if (failure != null) throw new IOException("Journal write failed", failure);
+            if (closed && flusher != null && !flusher.isAlive()) throw new IOException("Journal is closed");
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for journal sync");
+            }
+        }
+    }
+
+    // Group commit loop: collect appends for up to one window, then one write + one fsync for all of them
+    private void flushLoop() {
+        while (true) {
+            long target;
+            FileChannel ch;
+            synchronized (lock) {
+                try {
+                    while (!closed && pending.position() == 0) lock.wait();
+                    long deadline = System.currentTimeMillis() + windowMillis;
+                    long remaining;
+                    while (!closed && !flushRequested && pending.position() < GROUP_COMMIT_BYTES
+                            && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                        lock.wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+                flushRequested = false;
+                if (pending.position() == 0) {
+                    durableSequence = lastSequence;
+                    lock.notifyAll();
+                    if (closed) return;
+                    continue;
+                }
+                ByteBuffer swap = writing;
+                writing = pending;
+                pending = swap;
+                pending.clear();
+                target = lastSequence;
+                ch = channel; // stays valid: compactThrough waits for 'flushing' to clear
+                flushing = true;
+            }
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) ch.write(writing);
+                ch.force(false);
+                synchronized (lock) {
+                    flushing = false;
+                    durableSequence = target;
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    flushing = false;
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    // ------------------------- Reading -------------------------
+    private static class ScanResult {
+        long validEnd;
+        long lastSequence;
+        long firstOffsetAfter = -1; // offset of the first record with sequence > afterSequence
+    }
+
+    private static ScanResult scan(FileChannel ch, long afterSequence) throws IOException {
+        try {
+            return scan(ch, null, afterSequence);
+        } catch (StudentRegistryFullException e) {
+            throw new AssertionError(e); // nothing is applied without a registry
+        }
+    }
+
+    // Walks the records; applies them to 'registry' if given. Stops at the first torn/corrupt record.
+    // Reads from offset 0 and moves ch's position, so 'ch' must not be a channel someone appends to.
+    private static ScanResult scan(FileChannel ch, StudentRegistry registry, long afterSequence)
+            throws IOException, StudentRegistryFullException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch.position(0)), 64 * 1024));
+        if (in.readInt() != MAGIC) throw new IOException("Not a student journal");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported journal version: " + version);
+
+        ScanResult result = new ScanResult();
+        result.validEnd = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        byte[] payload = new byte[256];
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE) break;
+                if (length > payload.length) payload = new byte[Math.max(length, payload.length * 2)];
+                in.readFully(payload, 0, length);
+                int stored = in.readInt();
+                crc.reset();
+                crc.update(payload, 0, length);
+                if (stored != (int) crc.getValue()) break;
+            } catch (EOFException torn) {
+                break;
+            }
+
+            ByteBuffer rec = ByteBuffer.wrap(payload, 0, length);
+            long seq = rec.getLong();
+            byte op = rec.get();
+            int matNo = rec.getInt();
+            if (seq > afterSequence) {
+                if (result.firstOffsetAfter < 0) result.firstOffsetAfter = result.validEnd;
+                if (registry != null) apply(registry, rec, op, matNo);
+            }
+            result.lastSequence = seq;
+            result.validEnd += 4 + length + 4;
+        }
+        if (result.firstOffsetAfter < 0) result.firstOffsetAfter = result.validEnd;
+        return result;
+    }
+
+    private static void apply(StudentRegistry registry, ByteBuffer rec, byte op, int matNo)
+            throws IOException, StudentRegistryFullException {
+        if (op == OP_REMOVE) {
+            registry.removeIfPresent(matNo); // may already be gone in the snapshot
+            return;
+        }
+        if (op != OP_ADD) throw new IOException("Unknown journal operation: " + op);
+        int birthYear = rec.getInt();
+        String first = readName(rec);
+        String last = readName(rec);
+        try {
+            registry.addStudent(new Student(matNo, first, last, birthYear));
+        } catch (InvalidMatriculationNumberException e) {
+            throw new IOException("Invalid student in journal", e);
+        }
+    }
+
+    private static String readName(ByteBuffer rec) {
+        int len = rec.getShort() & 0xFFFF;
+        String s = new String(rec.array(), rec.position(), len, StandardCharsets.UTF_8);
+        rec.position(rec.position() + len);
+        return s;
+    }
+}
@@ -0,0 +1,268 @@
+package lab3.task6;
+
+import java.io.*;
+import java.util.*;
+
+/*
+ * Lab 3 - Task 6 (extension): Streaming JSON reader
+ * -------------------------------------------------
+ * Incremental pull tokenizer over a fixed-size char buffer for a top-level JSON array of
+ * student objects (the format written by StudentDataManager.saveToJson). Keys are matched
+ * in place against the known field names and values are bound straight to the Student
+ * constructor arguments, so there are no per-object maps and no substrings. Strings are
+ * tokenized properly, so names containing "},{" or escapes are read correctly.
+ * Unknown keys are skipped (including nested objects/arrays).
+ */
+class StudentJsonReader implements Iterator<Student>, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[][] KEYS = {
+            "matriculationNumber".toCharArray(),
+            "firstName".toCharArray(),
+            "lastName".toCharArray(),
+            "birthYear".toCharArray()
+    };
+    private static final int KEY_MAT = 0;
+    private static final int KEY_FIRST = 1;
+    private static final int KEY_LAST = 2;
+    private static final int KEY_YEAR = 3;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private long consumed; // chars consumed before buf[0], for error messages
+
+    private char[] str = new char[64]; // reused for keys and string values
+
+    private boolean started;
+    private boolean first = true;
+    private boolean done;
+    private Student next;
+
+    StudentJsonReader(Reader in) {
+        this.in = in;
+    }
+
+    // Returns the next student, or null after the closing ']' (or for input that is not an array)
+    public Student read() throws IOException, StudentManagementException {
+        if (done) return null;
+        if (!started) {
+            started = true;
+            if (peekNonWhitespace() != '[') {
+                done = true;
+                return null;
+            }
+            pos++;
+        }
+        int c = peekNonWhitespace();
+        if (c == ']') {
+            pos++;
+            done = true;
+            return null;
+        }
+        if (!first) {
+            if (c != ',') throw malformed("expected ',' or ']'");
+            pos++;
+        }
+        first = false;
+        return readObject();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (StudentManagementException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Student next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Student s = next;
+        next = null;
+        return s;
+    }
+
+    @Override
+    public void close() throws IOException { in.close(); }
+
+    void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // nothing useful to do while tearing down a stream
+        }
+    }
+
+    // ------------------------- Object binding -------------------------
+    private Student readObject() throws IOException, StudentManagementException {
+        expect('{');
+        long mat = Long.MIN_VALUE;
+        long year = Long.MIN_VALUE;
+        String firstName = null;
+        String lastName = null;
+
+        if (peekNonWhitespace() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                expect('"');
+                int key = matchKey(readStringBody());
+                expect(':');
+                switch (key) {
+                    case KEY_MAT: mat = readInt(); break;
+                    case KEY_YEAR: year = readInt(); break;
+                    case KEY_FIRST: firstName = readStringValue(); break;
+                    case KEY_LAST: lastName = readStringValue(); break;
+                    default: skipValue();
+                }
+                int c = nextNonWhitespace();
+                if (c == '}') break;
+                if (c != ',') throw malformed("expected ',' or '}'");
+            }
+        }
+        if (mat == Long.MIN_VALUE || year == Long.MIN_VALUE || firstName == null || lastName == null) {
+            throw malformed("student object is missing a field");
+        }
+        return new Student((int) mat, firstName, lastName, (int) year);
+    }
+
+    private int matchKey(int len) {
+        for (int k = 0; k < KEYS.length; k++) {
+            char[] key = KEYS[k];
+            if (key.length != len) continue;
+            int i = 0;
+            while (i < len && key[i] == str[i]) i++;
+            if (i == len) return k;
+        }
+        return -1;
+    }
+
+    // ------------------------- Tokens -------------------------
+    private String readStringValue() throws IOException, DataPersistenceException {
+        if (nextNonWhitespace() != '"') throw malformed("expected a string");
+        int len = readStringBody();
+        return new String(str, 0, len);
+    }
+
+    // Reads up to the closing quote (opening quote already consumed) into 'str'; returns the length
+    private int readStringBody() throws IOException, DataPersistenceException {
+        int len = 0;
+        while (true) {
+            int c = nextChar();
+            if (c < 0) throw malformed("unterminated string");
+            if (c == '"') return len;
+            if (c == '\\') c = readEscape();
+            else if (c < 0x20) throw malformed("control character in string");
+            if (len == str.length) str = Arrays.copyOf(str, str.length * 2);
+            str[len++] = (char) c;
+        }
+    }
+
+    private int readEscape() throws IOException, DataPersistenceException {
+        int c = nextChar();
+        switch (c) {
+            case '"': case '\\': case '/': return c;
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u': {
+                int v = 0;
+                for (int i = 0; i < 4; i++) {
+                    int d = Character.digit(nextChar(), 16);
+                    if (d < 0) throw malformed("invalid \\u escape");
+                    v = (v << 4) | d;
+                }
+                return v;
+            }
+            default: throw malformed("invalid escape");
+        }
+    }
+
+    // JSON integer bound directly to an int; fractions and exponents are rejected
+    private long readInt() throws IOException, DataPersistenceException {
+        int c = nextNonWhitespace();
+        boolean negative = c == '-';
+        if (negative) c = nextChar();
+        if (c < '0' || c > '9') throw malformed("expected an integer");
+        long value = c - '0';
+        while (true) {
+            c = peekChar();
+            if (c < '0' || c > '9') break;
+            pos++;
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) throw malformed("integer out of range");
+        }
+        if (c == '.' || c == 'e' || c == 'E') throw malformed("expected an integer");
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw malformed("integer out of range");
+        return value;
+    }
+
+    // Skips any JSON value; strings are tokenized so brackets inside them do not count
+    private void skipValue() throws IOException, DataPersistenceException {
+        int depth = 0;
+        while (true) {
+            int c = peekNonWhitespace();
+            if (c < 0) throw malformed("unexpected end of input");
+            if (depth == 0 && (c == ',' || c == '}' || c == ']')) return;
+            pos++;
+            if (c == '"') readStringBody();
+            else if (c == '{' || c == '[') depth++;
+            else if (c == '}' || c == ']') depth--;
+        }
+    }
+
+    private void expect(char expected) throws IOException, DataPersistenceException {
+        if (nextNonWhitespace() != expected) throw malformed("expected '" + expected + "'");
+    }
+
+    // ------------------------- Character buffer -------------------------
+    private int peekChar() throws IOException {
+        if (pos >= limit && !fill()) return -1;
+        return buf[pos];
+    }
+
+    private int nextChar() throws IOException {
+        if (pos >= limit && !fill()) return -1;
+        return buf[pos++];
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            int c = peekChar();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return c;
+            pos++;
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = peekNonWhitespace();
+        if (c >= 0) pos++;
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        limit = n;
+        return true;
+    }
+
+    private DataPersistenceException malformed(String reason) {
+        return new DataPersistenceException("Malformed JSON content at char " + (consumed + pos) + ": " + reason, null);
+    }
+}
@@ -0,0 +1,58 @@
+package lab3.task6;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/*
+ * Lab 3 - Task 6 (extension): JSON block writer
+ * ---------------------------------------------
+ * Same layout as the original saveToJson: one object per line inside "[" ... "]"
+ */
+class StudentJsonWriter extends BlockTextWriter {
+    private static final byte[] OBJECT_START = "  {\"matriculationNumber\":".getBytes();
+    private static final byte[] FIRST_NAME = ",\"firstName\":\"".getBytes();
+    private static final byte[] LAST_NAME = "\",\"lastName\":\"".getBytes();
+    private static final byte[] BIRTH_YEAR = "\",\"birthYear\":".getBytes();
+
+    private boolean first = true;
+    private boolean finished;
+
+    StudentJsonWriter(WritableByteChannel out) throws IOException {
+        super(out, DEFAULT_BLOCK_SIZE);
+        putByte('[');
+        newLine();
+    }
+
+    @Override
+    public void write(Student s) throws IOException {
+        // The separator belongs to the previous line, so it is written before the next object
+        if (!first) {
+            putByte(',');
+            newLine();
+        }
+        first = false;
+        putAscii(OBJECT_START);
+        putInt(s.getMatriculationNumber());
+        putAscii(FIRST_NAME);
+        putString(s.getFirstName(), true);
+        putAscii(LAST_NAME);
+        putString(s.getLastName(), true);
+        putAscii(BIRTH_YEAR);
+        putInt(s.getBirthYear());
+        putByte('}');
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!finished) {
+                finished = true;
+                if (!first) newLine();
+                putByte(']');
+                newLine();
+            }
+        } finally {
+            super.close();
+        }
+    }
+}
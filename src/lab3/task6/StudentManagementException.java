@@ -0,0 +1,15 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6: Custom exception hierarchy
+ * ------------------------------------------
+ * Checked base class of all registry and persistence errors (see ExceptionAndFileIOApp).
+ */
+class StudentManagementException extends Exception {
+    public StudentManagementException(String message) { super(message); }
+    public StudentManagementException(String message, Throwable cause) { super(message, cause); }
+    // For expected, frequent outcomes: writableStackTrace=false skips the costly fillInStackTrace
+    protected StudentManagementException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,10 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6: Lookup miss
+ * ---------------------------
+ * A miss is a normal lookup outcome, so this exception carries no stack trace
+ */
+class StudentNotFoundException extends StudentManagementException {
+    public StudentNotFoundException(int matNo) { super("Student with matriculation number " + matNo + " not found", null, false, false); }
+}
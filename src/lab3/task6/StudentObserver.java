@@ -0,0 +1,11 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6: Registry observer
+ * ---------------------------------
+ * Observer hook (e.g. DeltaSegmentStore); only effective mutations are reported, after they are applied
+ */
+interface StudentObserver {
+    void onStudentAdded(Student student);
+    void onStudentRemoved(Student student);
+}
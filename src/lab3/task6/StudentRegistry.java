@@ -0,0 +1,177 @@
+package lab3.task6;
+
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Lab 3 - Task 6: Registry with capacity + logging
+ * ------------------------------------------------
+ * Methods are synchronized so persistence threads (snapshots, async saves) can read while others write.
+ * Lookups and removals go through a matNo -> slot index; a removal leaves a null tombstone in its slot
+ * (O(1), order preserved) and the slots are compacted once tombstones make up half of them. Storage is
+ * a chunked vector (StudentSlotVector), so snapshots are O(1) and share chunks with the registry.
+ */
+class StudentRegistry {
+    private static final Logger LOG = Logger.getLogger(StudentRegistry.class.getName());
+    // Explicit source class for logp: no stack walk to infer the caller on every record
+    private static final String CLASS = StudentRegistry.class.getName();
+
+    private static final int MIN_COMPACT_TOMBSTONES = 32;
+
+    private final int maxCapacity;
+    private StudentSlotVector students = new StudentSlotVector(); // null slot = tombstone of a removed student
+    private final MatricSlotIndex slots = new MatricSlotIndex();
+    private final List<StudentObserver> observers = new ArrayList<>();
+    private StudentWriteAheadLog writeAheadLog; // optional
+
+    public StudentRegistry(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    // Returns false if the matriculation number is already registered
+    public synchronized boolean addStudent(Student s) throws StudentRegistryFullException {
+        if (size() >= maxCapacity) {
+            LOG.logp(Level.WARNING, CLASS, "addStudent", "Registry full");
+            throw new StudentRegistryFullException(maxCapacity);
+        }
+        if (slots.get(s.getMatriculationNumber()) != MatricSlotIndex.MISSING) {
+            LOG.logp(Level.WARNING, CLASS, "addStudent", () -> "Duplicate matriculation number: " + s.getMatriculationNumber());
+            // silently ignore duplicate add; alternatively throw a custom DuplicateStudentException
+            return false;
+        }
+        if (writeAheadLog != null) writeAheadLog.logAdd(s);
+        slots.put(s.getMatriculationNumber(), students.add(s));
+        // Per-record message: the parameter is only formatted by a handler (if the record passes level and filters)
+        if (LOG.isLoggable(Level.INFO)) LOG.logp(Level.INFO, CLASS, "addStudent", "Added student: {0}", s);
+        for (StudentObserver o : observers) o.onStudentAdded(s);
+        return true;
+    }
+
+    // Bulk add in one critical section: structures are sized once, capacity is computed once and
+    // duplicates (against the registry and within the batch) are sorted out in the same pass.
+    // Matches a loop over addStudent: once the registry is full, every remaining student is overflow.
+    public synchronized BulkResult addAll(Collection<Student> batch) {
+        int free = Math.max(0, maxCapacity - size());
+        IntBuffer duplicates = new IntBuffer();
+        IntBuffer overflow = new IntBuffer();
+        int added = 0;
+        if (free > 0 && !batch.isEmpty()) slots.ensureCapacity(slots.size() + Math.min(free, batch.size()));
+        for (Student s : batch) {
+            if (added == free) {
+                overflow.add(s.getMatriculationNumber());
+                continue;
+            }
+            int matNo = s.getMatriculationNumber();
+            if (slots.get(matNo) != MatricSlotIndex.MISSING) {
+                duplicates.add(matNo);
+                continue;
+            }
+            if (writeAheadLog != null) writeAheadLog.logAdd(s); // a failure stops the batch; earlier adds are logged
+            slots.put(matNo, students.add(s));
+            added++;
+            for (StudentObserver o : observers) o.onStudentAdded(s);
+        }
+        BulkResult result = new BulkResult(added, duplicates.toArray(), overflow.toArray(), new int[0]);
+        LOG.logp(Level.INFO, CLASS, "addAll", "Bulk add of {0} students: {1}", new Object[] {batch.size(), result});
+        return result;
+    }
+
+    // Bulk removal: tombstones for all hits, at most one compaction at the end
+    public synchronized BulkResult removeAll(int[] matNos) {
+        IntBuffer notFound = new IntBuffer();
+        int removed = 0;
+        for (int matNo : matNos) {
+            int slot = slots.get(matNo);
+            if (slot == MatricSlotIndex.MISSING) {
+                notFound.add(matNo);
+                continue;
+            }
+            if (writeAheadLog != null) writeAheadLog.logRemove(students.get(slot));
+            Student s = students.clear(slots.remove(matNo));
+            removed++;
+            for (StudentObserver o : observers) o.onStudentRemoved(s);
+        }
+        compactIfSparse();
+        BulkResult result = new BulkResult(removed, new int[0], new int[0], notFound.toArray());
+        LOG.logp(Level.INFO, CLASS, "removeAll", "Bulk remove of {0} students: {1}", new Object[] {matNos.length, result});
+        return result;
+    }
+
+    public synchronized void addObserver(StudentObserver observer) { observers.add(observer); }
+    public synchronized void removeObserver(StudentObserver observer) { observers.remove(observer); }
+
+    // At most one log; pass null to detach
+    public synchronized void setWriteAheadLog(StudentWriteAheadLog log) { writeAheadLog = log; }
+
+    public int getMaxCapacity() { return maxCapacity; }
+    public synchronized int size() { return students.liveCount(); }
+
+    public synchronized Student findByMatric(int matNo) throws StudentNotFoundException {
+        Student s = getOrNull(matNo);
+        if (s != null) return s;
+        LOG.logp(Level.WARNING, CLASS, "findByMatric", () -> "Not found: matNo=" + matNo);
+        throw new StudentNotFoundException(matNo);
+    }
+
+    // Non-throwing lookups for hot callers: a miss costs neither an exception nor a log record
+    public synchronized Student getOrNull(int matNo) {
+        int slot = slots.get(matNo);
+        return slot == MatricSlotIndex.MISSING ? null : students.get(slot);
+    }
+
+    public Optional<Student> find(int matNo) { return Optional.ofNullable(getOrNull(matNo)); }
+
+    public synchronized boolean removeByMatric(int matNo) throws StudentNotFoundException {
+        if (!removeIfPresent(matNo)) throw new StudentNotFoundException(matNo);
+        return true;
+    }
+
+    // Returns false instead of throwing when nothing is registered under 'matNo'
+    public synchronized boolean removeIfPresent(int matNo) {
+        int slot = slots.get(matNo);
+        if (slot == MatricSlotIndex.MISSING) return false;
+        if (writeAheadLog != null) writeAheadLog.logRemove(students.get(slot));
+        Student s = students.clear(slots.remove(matNo));
+        compactIfSparse();
+        if (LOG.isLoggable(Level.INFO)) LOG.logp(Level.INFO, CLASS, "removeByMatric", "Removed student: {0}", s);
+        for (StudentObserver o : observers) o.onStudentRemoved(s);
+        return true;
+    }
+
+    public synchronized List<Student> list() {
+        List<Student> res = new ArrayList<>(size());
+        students.forEachLive(res::add);
+        return res;
+    }
+
+    // Point-in-time, read-only view of the live students in O(1). No copy and no compaction under the
+    // lock: later writes copy only the chunks they touch (see StudentSlotVector).
+    public synchronized List<Student> snapshot() { return students.snapshot(); }
+
+    // Growable int array for the refused matNos of a bulk operation
+    private static final class IntBuffer {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        int[] toArray() { return Arrays.copyOf(values, size); }
+    }
+
+    // Runs on the removal path only, once tombstones make up half of the slots (amortized O(1) per removal)
+    private void compactIfSparse() {
+        int tombstones = students.slotCount() - students.liveCount();
+        if (tombstones >= MIN_COMPACT_TOMBSTONES && tombstones * 2 >= students.slotCount()) compact();
+    }
+
+    // Drops tombstones into fresh chunks (snapshots keep the old ones) and re-points the index
+    private void compact() {
+        StudentSlotVector live = new StudentSlotVector();
+        students.forEachLive(s -> slots.put(s.getMatriculationNumber(), live.add(s)));
+        students = live;
+    }
+}
@@ -0,0 +1,10 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6: Registry full
+ * -----------------------------
+ * Thrown by StudentRegistry.addStudent once maxCapacity students are registered
+ */
+class StudentRegistryFullException extends StudentManagementException {
+    public StudentRegistryFullException(int maxCapacity) { super("Student registry is full. Maximum capacity: " + maxCapacity); }
+}
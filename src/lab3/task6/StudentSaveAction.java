@@ -0,0 +1,12 @@
+package lab3.task6;
+
+import java.util.List;
+
+/*
+ * Lab 3 - Task 6 (extension): Save action
+ * ---------------------------------------
+ * A synchronous save routine, e.g. StudentDataManager::saveToCsv
+ */
+interface StudentSaveAction {
+    void save(List<Student> students, String filename) throws DataPersistenceException;
+}
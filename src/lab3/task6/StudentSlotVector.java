@@ -0,0 +1,176 @@
+package lab3.task6;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/*
+ * Lab 3 - Task 6 (extension): Chunked slot vector with O(1) snapshots
+ * -------------------------------------------------------------------
+ * Primary storage of StudentRegistry: slots in fixed-size chunks (1024) under a spine array,
+ * where a removed student leaves a null tombstone so the other slots (held by MatricSlotIndex)
+ * stay valid. snapshot() only hands out the current spine, the per-chunk live counts and the
+ * sizes; nothing is copied and no compaction runs, so a background snapshot never holds the
+ * registry lock for O(n).
+ *
+ * Writers stay correct by copy-on-write at two levels:
+ * - the spine and live-count arrays (one entry per chunk) are copied on the first mutation
+ *   after a snapshot, i.e. O(n / 1024) once per snapshot;
+ * - a chunk is copied (1024 references) before a tombstone is written into it, at most once per
+ *   chunk and snapshot (tracked by an epoch per chunk).
+ * Appends only touch slots beyond every snapshot's size, so they never copy a chunk.
+ * Snapshots skip tombstones, so they look like a plain list of the live students in slot order.
+ * While a snapshot has no tombstones, get(i) reads slot i directly; otherwise the first get()
+ * builds a live-index -> slot table in one pass over the slots, and every later get() is O(1).
+ */
+final class StudentSlotVector {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private Student[][] spine = new Student[4][];
+    private int[] liveCounts = new int[4]; // live students per chunk
+    private int[] chunkEpochs = new int[4]; // chunk is owned by the writer iff chunkEpochs[c] == epoch
+    private int epoch;
+    private boolean metaShared;            // spine / liveCounts are referenced by a snapshot
+    private int slots;                     // used slots, tombstones included
+    private int live;
+
+    public int slotCount() { return slots; }
+    public int liveCount() { return live; }
+
+    // Appends 's' and returns its slot
+    public int add(Student s) {
+        if (s == null) throw new NullPointerException("student");
+        ownMeta();
+        int c = slots >>> CHUNK_BITS;
+        if (c == spine.length) {
+            spine = Arrays.copyOf(spine, c * 2);
+            liveCounts = Arrays.copyOf(liveCounts, c * 2);
+            chunkEpochs = Arrays.copyOf(chunkEpochs, c * 2);
+        }
+        if (spine[c] == null) {
+            spine[c] = new Student[CHUNK_SIZE];
+            chunkEpochs[c] = epoch;
+        }
+        spine[c][slots & CHUNK_MASK] = s;
+        liveCounts[c]++;
+        live++;
+        return slots++;
+    }
+
+    // Student in 'slot', or null for a tombstone
+    public Student get(int slot) {
+        if (slot < 0 || slot >= slots) throw new IndexOutOfBoundsException("slot " + slot + " of " + slots);
+        return spine[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    // Replaces the student in 'slot' with a tombstone and returns it
+    public Student clear(int slot) {
+        Student s = get(slot);
+        if (s == null) throw new IllegalStateException("Slot " + slot + " is already empty");
+        ownMeta();
+        int c = slot >>> CHUNK_BITS;
+        if (chunkEpochs[c] != epoch) {
+            spine[c] = spine[c].clone();
+            chunkEpochs[c] = epoch;
+        }
+        spine[c][slot & CHUNK_MASK] = null;
+        liveCounts[c]--;
+        live--;
+        return s;
+    }
+
+    // Live students in slot order
+    public void forEachLive(Consumer<? super Student> action) { forEachLive(spine, slots, action); }
+
+    // Read-only view of the live students as of now, in O(1)
+    public List<Student> snapshot() {
+        metaShared = true;
+        epoch++; // every existing chunk is now shared with the snapshot
+        return new Snapshot(spine, liveCounts, slots, live);
+    }
+
+    // ------------------------- Internals -------------------------
+    private void ownMeta() {
+        if (!metaShared) return;
+        spine = spine.clone();
+        liveCounts = liveCounts.clone();
+        metaShared = false;
+    }
+
+    private static void forEachLive(Student[][] spine, int slots, Consumer<? super Student> action) {
+        for (int c = 0, left = slots; left > 0; c++, left -= CHUNK_SIZE) {
+            Student[] chunk = spine[c];
+            int n = Math.min(left, CHUNK_SIZE);
+            for (int i = 0; i < n; i++) if (chunk[i] != null) action.accept(chunk[i]);
+        }
+    }
+
+    private static final class Snapshot extends AbstractList<Student> implements RandomAccess {
+        private final Student[][] spine;
+        private final int[] liveCounts;
+        private final int slots;
+        private final int live;
+        private volatile int[] slotOf; // slot of each live index; built on the first random access
+
+        Snapshot(Student[][] spine, int[] liveCounts, int slots, int live) {
+            this.spine = spine;
+            this.liveCounts = liveCounts;
+            this.slots = slots;
+            this.live = live;
+        }
+
+        @Override
+        public int size() { return live; }
+
+        @Override
+        public Student get(int index) {
+            if (index < 0 || index >= live) throw new IndexOutOfBoundsException("index " + index + " of " + live);
+            int slot = live == slots ? index : slotOf()[index]; // no tombstones: index == slot
+            return spine[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+        }
+
+        @Override
+        public void forEach(Consumer<? super Student> action) { forEachLive(spine, slots, action); }
+
+        // Sequential access skips tombstones directly instead of searching per element
+        @Override
+        public Iterator<Student> iterator() {
+            return new Iterator<Student>() {
+                private int slot = advance(0);
+
+                @Override public boolean hasNext() { return slot < slots; }
+
+                @Override
+                public Student next() {
+                    if (slot >= slots) throw new NoSuchElementException();
+                    Student s = spine[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+                    slot = advance(slot + 1);
+                    return s;
+                }
+
+                private int advance(int from) {
+                    while (from < slots && spine[from >>> CHUNK_BITS][from & CHUNK_MASK] == null) from++;
+                    return from;
+                }
+            };
+        }
+
+        // Racing builders compute the same table; the volatile write publishes a complete array
+        private int[] slotOf() {
+            int[] table = slotOf;
+            if (table == null) {
+                table = new int[live];
+                int k = 0;
+                for (int c = 0, base = 0; base < slots; c++, base += CHUNK_SIZE) {
+                    if (liveCounts[c] == 0) continue; // fully removed chunk
+                    Student[] chunk = spine[c];
+                    int n = Math.min(slots - base, CHUNK_SIZE);
+                    for (int i = 0; i < n; i++) if (chunk[i] != null) table[k++] = base + i;
+                }
+                slotOf = table;
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package lab3.task6;
+
+/*
+ * Lab 3 - Task 6 (extension): Registry write-ahead hook
+ * -----------------------------------------------------
+ * Write-ahead hook (e.g. StudentJournal): called after all checks but before the registry changes.
+ * If it throws, the mutation is not applied and the exception reaches the caller.
+ */
+interface StudentWriteAheadLog {
+    void logAdd(Student student);
+    void logRemove(Student student);
+}